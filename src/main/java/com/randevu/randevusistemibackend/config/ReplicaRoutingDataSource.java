@@ -0,0 +1,62 @@
+package com.randevu.randevusistemibackend.config;
+
+import com.randevu.randevusistemibackend.util.TransactionCallbacks;
+import com.randevu.randevusistemibackend.util.TtlCache;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections of read-only transactions to the replica and everything else to the primary.
+ *
+ * A user whose read-write transaction committed within the stickiness window keeps
+ * reading from the primary, so they see their own writes even if the replica lags.
+ * The route is chosen when a connection is first used, which is why this must sit
+ * behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * the transaction's read-only flag is only known after the transaction manager asks
+ * for a connection.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private static final AuthenticationTrustResolver TRUST_RESOLVER = new AuthenticationTrustResolverImpl();
+
+    private final TtlCache<String, Boolean> recentWriters;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, long stickinessMillis, int maxTrackedUsers) {
+        this.recentWriters = new TtlCache<>(stickinessMillis, maxTrackedUsers);
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String username = currentUsername();
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return username != null && recentWriters.get(username) != null ? Route.PRIMARY : Route.REPLICA;
+        }
+        if (username != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionCallbacks.afterCommit(() -> recentWriters.put(username, Boolean.TRUE));
+        }
+        return Route.PRIMARY;
+    }
+
+    // Anonymous requests all share one name, so they must not pin each other to the primary
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated()
+                && !TRUST_RESOLVER.isAnonymous(authentication) ? authentication.getName() : null;
+    }
+}
@@ -16,16 +16,25 @@ import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.util.Collection;
 import java.util.Enumeration;
+import java.util.Set;
 
 /**
  * Filter that logs all HTTP requests and responses.
  * For large request/response bodies, only a preview will be logged.
+ * Streaming endpoints are skipped, since caching their response would hold the whole body in memory.
  */
 @Component
 public class RequestLoggingFilter extends OncePerRequestFilter {
     
     private static final Logger log = LoggerFactory.getLogger(RequestLoggingFilter.class);
     private static final int MAX_PAYLOAD_LENGTH = 1000;
+    private static final Set<String> STREAMING_PATHS = Set.of("/api/appointments/provider/export");
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return STREAMING_PATHS.contains(path);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
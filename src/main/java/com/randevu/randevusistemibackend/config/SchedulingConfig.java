@@ -0,0 +1,12 @@
+package com.randevu.randevusistemibackend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs such as slot hold expiry.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
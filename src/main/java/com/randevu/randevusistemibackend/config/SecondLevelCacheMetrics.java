@@ -0,0 +1,52 @@
+package com.randevu.randevusistemibackend.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes hits, misses and the hit ratio of every Hibernate second-level cache region,
+ * tagged by region, from Hibernate's statistics.
+ */
+@Component
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            FunctionCounter.builder("hibernate.cache.hits", statistics, s -> region(s, region).getHitCount())
+                    .tag("region", region)
+                    .description("Second-level cache lookups answered from the cache")
+                    .register(registry);
+            FunctionCounter.builder("hibernate.cache.misses", statistics, s -> region(s, region).getMissCount())
+                    .tag("region", region)
+                    .description("Second-level cache lookups that went to the database")
+                    .register(registry);
+            Gauge.builder("hibernate.cache.hit-ratio", statistics, s -> hitRatio(region(s, region)))
+                    .tag("region", region)
+                    .description("Share of second-level cache lookups answered from the cache")
+                    .register(registry);
+        }
+    }
+
+    private static CacheRegionStatistics region(Statistics statistics, String region) {
+        return statistics.getDomainDataRegionStatistics(region);
+    }
+
+    private static double hitRatio(CacheRegionStatistics region) {
+        long lookups = region.getHitCount() + region.getMissCount();
+        return lookups == 0 ? 0 : (double) region.getHitCount() / lookups;
+    }
+}
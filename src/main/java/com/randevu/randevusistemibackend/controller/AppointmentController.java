@@ -1,14 +1,27 @@
 package com.randevu.randevusistemibackend.controller;
 
+import com.randevu.randevusistemibackend.dto.AppointmentPageResponse;
 import com.randevu.randevusistemibackend.dto.AppointmentRequest;
 import com.randevu.randevusistemibackend.dto.AppointmentResponse;
+import com.randevu.randevusistemibackend.dto.AppointmentSeriesRequest;
 import com.randevu.randevusistemibackend.dto.ApiErrorResponse;
+import com.randevu.randevusistemibackend.dto.BulkAppointmentRequest;
+import com.randevu.randevusistemibackend.dto.BulkAppointmentResponse;
+import com.randevu.randevusistemibackend.dto.MessageResponse;
+import com.randevu.randevusistemibackend.dto.SlotHoldConfirmRequest;
+import com.randevu.randevusistemibackend.dto.SlotHoldRequest;
+import com.randevu.randevusistemibackend.dto.SlotHoldResponse;
+import com.randevu.randevusistemibackend.dto.WaitlistEntryResponse;
+import com.randevu.randevusistemibackend.dto.WaitlistRequest;
 import com.randevu.randevusistemibackend.exception.BadRequestException;
 import com.randevu.randevusistemibackend.model.Provider;
 import com.randevu.randevusistemibackend.model.Role;
 import com.randevu.randevusistemibackend.model.User;
 import com.randevu.randevusistemibackend.repository.UserRepository;
+import com.randevu.randevusistemibackend.service.AppointmentExportService;
 import com.randevu.randevusistemibackend.service.AppointmentService;
+import com.randevu.randevusistemibackend.service.IdempotencyService;
+import com.randevu.randevusistemibackend.service.WaitlistService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -18,20 +31,26 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.security.Principal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/appointments")
@@ -41,6 +60,9 @@ import java.util.List;
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
+    private final AppointmentExportService appointmentExportService;
+    private final WaitlistService waitlistService;
+    private final IdempotencyService idempotencyService;
     private final UserRepository userRepository;
     
     @Operation(summary = "Create a new appointment", description = "Schedule a new appointment with a provider")
@@ -52,12 +74,17 @@ public class AppointmentController {
         @ApiResponse(responseCode = "403", description = "Not a user account or attempting to book with self",
                 content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
         @ApiResponse(responseCode = "404", description = "Provider not found",
+                content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+        @ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is still in progress",
                 content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
     })
     @PostMapping
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<AppointmentResponse> createAppointment(
-            @Valid @RequestBody AppointmentRequest request, Principal principal) {
+            @Valid @RequestBody AppointmentRequest request,
+            @Parameter(description = "Client-generated key; a resent request with the same key returns the original appointment")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            Principal principal) {
         
         User currentUser = getUserFromPrincipal(principal);
         
@@ -67,39 +94,85 @@ public class AppointmentController {
                                         "SELF_APPOINTMENT_NOT_ALLOWED");
         }
         
-        AppointmentResponse response = appointmentService.createAppointment(request, currentUser);
+        AppointmentResponse response = idempotencyKey == null
+                ? appointmentService.createAppointment(request, currentUser)
+                : idempotencyService.execute(currentUser.getId(), idempotencyKey, request, AppointmentResponse.class,
+                        () -> appointmentService.createAppointment(request, currentUser));
         
         return ResponseEntity.ok(response);
     }
     
-    @Operation(summary = "Get user appointments", description = "Get all appointments for the current user")
+    @Operation(summary = "Create a recurring appointment series", 
+              description = "Book a daily, weekly or monthly series of appointments with a provider in one request")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Appointments retrieved successfully",
+        @ApiResponse(responseCode = "200", description = "Appointment series created successfully",
                 content = @Content(array = @ArraySchema(schema = @Schema(implementation = AppointmentResponse.class)))),
+        @ApiResponse(responseCode = "400", description = "Invalid request data or an occurrence overlaps",
+                content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Provider not found",
+                content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @PostMapping("/series")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<AppointmentResponse>> createAppointmentSeries(
+            @Valid @RequestBody AppointmentSeriesRequest request, Principal principal) {
+        
+        User currentUser = getUserFromPrincipal(principal);
+        
+        if (currentUser.getId().equals(request.getProviderId())) {
+            throw new BadRequestException("You cannot book an appointment with yourself", 
+                                        "SELF_APPOINTMENT_NOT_ALLOWED");
+        }
+        
+        List<AppointmentResponse> response = appointmentService.createAppointmentSeries(request, currentUser);
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    @Operation(summary = "Get user appointments", 
+              description = "Get the current user's appointments newest first, one page at a time")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Appointments retrieved successfully",
+                content = @Content(schema = @Schema(implementation = AppointmentPageResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size",
+                content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
         @ApiResponse(responseCode = "401", description = "Unauthorized",
                 content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
     })
     @GetMapping("/user")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<AppointmentResponse>> getUserAppointments(Principal principal) {
+    public ResponseEntity<AppointmentPageResponse> getUserAppointments(
+            Principal principal,
+            @Parameter(description = "nextCursor of the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size", example = "20")
+            @RequestParam(required = false) Integer size) {
         User currentUser = getUserFromPrincipal(principal);
-        List<AppointmentResponse> appointments = appointmentService.getUserAppointments(currentUser);
+        AppointmentPageResponse appointments = appointmentService.getUserAppointments(currentUser, cursor, size);
         
         return ResponseEntity.ok(appointments);
     }
     
-    @Operation(summary = "Get provider appointments", description = "Get all appointments for the current provider")
+    @Operation(summary = "Get provider appointments", 
+              description = "Get the current provider's appointments newest first, one page at a time")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Appointments retrieved successfully",
-                content = @Content(array = @ArraySchema(schema = @Schema(implementation = AppointmentResponse.class)))),
+                content = @Content(schema = @Schema(implementation = AppointmentPageResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size",
+                content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
         @ApiResponse(responseCode = "403", description = "Not a provider account",
                 content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
     })
     @GetMapping("/provider")
     @PreAuthorize("hasRole('PROVIDER')")
-    public ResponseEntity<List<AppointmentResponse>> getProviderAppointments(Principal principal) {
+    public ResponseEntity<AppointmentPageResponse> getProviderAppointments(
+            Principal principal,
+            @Parameter(description = "nextCursor of the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size", example = "20")
+            @RequestParam(required = false) Integer size) {
         Provider provider = getProviderFromPrincipal(principal);
-        List<AppointmentResponse> appointments = appointmentService.getProviderAppointments(provider);
+        AppointmentPageResponse appointments = appointmentService.getProviderAppointments(provider, cursor, size);
         
         return ResponseEntity.ok(appointments);
     }
@@ -128,6 +201,37 @@ public class AppointmentController {
         return ResponseEntity.ok(appointments);
     }
     
+    @Operation(summary = "Export provider appointment history", 
+              description = "Stream all of the current provider's appointments, oldest first, as NDJSON or CSV")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export streamed",
+                content = {@Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")}),
+        @ApiResponse(responseCode = "400", description = "Unknown export format",
+                content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+        @ApiResponse(responseCode = "403", description = "Not a provider account",
+                content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping("/provider/export")
+    @PreAuthorize("hasRole('PROVIDER')")
+    public void exportProviderAppointments(
+            Principal principal,
+            @Parameter(description = "ndjson or csv", example = "csv")
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response) throws IOException {
+        
+        AppointmentExportService.Format exportFormat = AppointmentExportService.Format.parse(format);
+        Provider provider = getProviderFromPrincipal(principal);
+        
+        // Rows are written straight to the servlet stream while the cursor is open
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("appointments." + exportFormat.getExtension())
+                .build()
+                .toString());
+        appointmentExportService.exportProviderAppointments(provider, exportFormat, response.getOutputStream());
+    }
+    
     @Operation(summary = "Cancel an appointment", description = "Cancel an existing appointment")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Appointment cancelled successfully",
@@ -172,6 +276,148 @@ public class AppointmentController {
         return ResponseEntity.ok(response);
     }
     
+    @Operation(summary = "Confirm or cancel appointments in bulk", 
+              description = "Apply one status change to many appointments of the current provider, with a result per appointment")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Bulk change processed; see per-item results",
+                content = @Content(schema = @Schema(implementation = BulkAppointmentResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid request data or not a provider account",
+                content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @PostMapping("/provider/bulk")
+    @PreAuthorize("hasRole('PROVIDER')")
+    public ResponseEntity<BulkAppointmentResponse> bulkUpdateStatus(
+            @Valid @RequestBody BulkAppointmentRequest request, Principal principal) {
+        
+        Provider provider = getProviderFromPrincipal(principal);
+        BulkAppointmentResponse response = appointmentService.bulkUpdateStatus(request, provider);
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    @Operation(summary = "Hold a slot", 
+              description = "Reserve a provider time slot for a few minutes while the booking is completed")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Slot held successfully",
+                content = @Content(schema = @Schema(implementation = SlotHoldResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Slot overlaps an appointment or another hold",
+                content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Provider not found",
+                content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @PostMapping("/holds")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<SlotHoldResponse> holdSlot(
+            @Valid @RequestBody SlotHoldRequest request, Principal principal) {
+        
+        User currentUser = getUserFromPrincipal(principal);
+        
+        if (currentUser.getId().equals(request.getProviderId())) {
+            throw new BadRequestException("You cannot book an appointment with yourself", 
+                                        "SELF_APPOINTMENT_NOT_ALLOWED");
+        }
+        
+        SlotHoldResponse response = appointmentService.holdSlot(request, currentUser);
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    @Operation(summary = "Confirm a hold", description = "Turn a held slot into an appointment")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Appointment created successfully",
+                content = @Content(schema = @Schema(implementation = AppointmentResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Permission denied",
+                content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Hold not found or expired",
+                content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @PostMapping("/holds/{holdId}/confirm")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<AppointmentResponse> confirmHold(
+            @PathVariable UUID holdId,
+            @RequestBody(required = false) SlotHoldConfirmRequest request,
+            Principal principal) {
+        
+        User currentUser = getUserFromPrincipal(principal);
+        AppointmentResponse response = appointmentService.confirmHold(
+                holdId, request != null ? request : new SlotHoldConfirmRequest(), currentUser);
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    @Operation(summary = "Release a hold", description = "Give up a held slot before it expires")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Hold released successfully"),
+        @ApiResponse(responseCode = "400", description = "Permission denied",
+                content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Hold not found or expired",
+                content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @DeleteMapping("/holds/{holdId}")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<MessageResponse> releaseHold(@PathVariable UUID holdId, Principal principal) {
+        User currentUser = getUserFromPrincipal(principal);
+        appointmentService.releaseHold(holdId, currentUser);
+        
+        return ResponseEntity.ok(new MessageResponse("Hold released successfully"));
+    }
+    
+    @Operation(summary = "Join a waitlist", 
+              description = "Ask to be offered a provider slot within a time window if one is cancelled")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Joined the waitlist successfully",
+                content = @Content(schema = @Schema(implementation = WaitlistEntryResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid window or provider unavailable",
+                content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Provider not found",
+                content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @PostMapping("/waitlist")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<WaitlistEntryResponse> joinWaitlist(
+            @Valid @RequestBody WaitlistRequest request, Principal principal) {
+        
+        User currentUser = getUserFromPrincipal(principal);
+        
+        if (currentUser.getId().equals(request.getProviderId())) {
+            throw new BadRequestException("You cannot book an appointment with yourself", 
+                                        "SELF_APPOINTMENT_NOT_ALLOWED");
+        }
+        
+        WaitlistEntryResponse response = waitlistService.joinWaitlist(request, currentUser);
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    @Operation(summary = "Get user waitlist entries", description = "Get all waitlist entries of the current user")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Waitlist entries retrieved successfully",
+                content = @Content(array = @ArraySchema(schema = @Schema(implementation = WaitlistEntryResponse.class))))
+    })
+    @GetMapping("/waitlist")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<WaitlistEntryResponse>> getUserWaitlist(Principal principal) {
+        User currentUser = getUserFromPrincipal(principal);
+        return ResponseEntity.ok(waitlistService.getUserWaitlist(currentUser));
+    }
+    
+    @Operation(summary = "Leave a waitlist", description = "Remove a waitlist entry of the current user")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Left the waitlist successfully"),
+        @ApiResponse(responseCode = "400", description = "Permission denied",
+                content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Waitlist entry not found",
+                content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @DeleteMapping("/waitlist/{id}")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<MessageResponse> leaveWaitlist(@PathVariable("id") Long entryId, Principal principal) {
+        User currentUser = getUserFromPrincipal(principal);
+        waitlistService.leaveWaitlist(entryId, currentUser);
+        
+        return ResponseEntity.ok(new MessageResponse("Left the waitlist successfully"));
+    }
+    
     /**
      * Get the current authenticated user from the security principal
      */
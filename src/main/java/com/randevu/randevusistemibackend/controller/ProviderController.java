@@ -1,18 +1,27 @@
 package com.randevu.randevusistemibackend.controller;
 
 import com.randevu.randevusistemibackend.dto.ApiErrorResponse;
+import com.randevu.randevusistemibackend.dto.EarliestSlotResponse;
 import com.randevu.randevusistemibackend.dto.MessageResponse;
 import com.randevu.randevusistemibackend.dto.ProviderDTO;
 import com.randevu.randevusistemibackend.dto.ProviderFilterRequest;
+import com.randevu.randevusistemibackend.dto.ProviderSliceResponse;
+import com.randevu.randevusistemibackend.dto.ProviderStatsResponse;
 import com.randevu.randevusistemibackend.dto.ProviderUpdateRequest;
+import com.randevu.randevusistemibackend.dto.TimeSlotResponse;
 import com.randevu.randevusistemibackend.model.Address;
 import com.randevu.randevusistemibackend.model.Provider;
+import com.randevu.randevusistemibackend.repository.ProviderRepository;
 import com.randevu.randevusistemibackend.repository.UserRepository;
 import com.randevu.randevusistemibackend.exception.ResourceNotFoundException;
 import com.randevu.randevusistemibackend.exception.ForbiddenException;
+import com.randevu.randevusistemibackend.service.AvailabilityService;
 import com.randevu.randevusistemibackend.service.ProviderService;
+import com.randevu.randevusistemibackend.service.ProviderStatsService;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -23,6 +32,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -30,6 +40,8 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 import java.security.Principal;
+import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/provider")
@@ -39,9 +51,13 @@ import java.security.Principal;
 public class ProviderController {
 
     private final UserRepository userRepository;
+    private final ProviderRepository providerRepository;
     private final ProviderService providerService;
+    private final AvailabilityService availabilityService;
+    private final ProviderStatsService providerStatsService;
 
-    @Operation(summary = "Search providers with filters", description = "Search for providers using various filter criteria")
+    @Operation(summary = "Search providers with filters", 
+              description = "Search for providers using various filter criteria; the total is cached for a short time")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Search completed successfully")
     })
@@ -54,6 +70,46 @@ public class ProviderController {
         return ResponseEntity.ok(providers);
     }
 
+    @Operation(summary = "Search providers one slice at a time", 
+              description = "Search for providers for infinite scrolling; tells whether more results follow " +
+                            "instead of counting every match")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Search completed successfully",
+                content = @Content(schema = @Schema(implementation = ProviderSliceResponse.class)))
+    })
+    @PostMapping("/search/slice")
+    public ResponseEntity<ProviderSliceResponse> searchProviderSlice(
+            @Valid ProviderFilterRequest filter,
+            @Parameter(description = "Also return the approximate number of matches", example = "false")
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.debug("Searching provider slice with filter: {}", filter);
+        
+        return ResponseEntity.ok(providerService.findProviderSliceByFilter(filter, includeTotal));
+    }
+
+    @Operation(summary = "Find earliest available providers", 
+              description = "Finds the providers matching the filter criteria that have the earliest free slot")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Search completed successfully",
+                content = @Content(array = @ArraySchema(schema = @Schema(implementation = EarliestSlotResponse.class)))),
+        @ApiResponse(responseCode = "400", description = "Invalid limit or horizon",
+                content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @PostMapping("/earliest")
+    public ResponseEntity<List<EarliestSlotResponse>> findEarliestSlots(
+            @Valid ProviderFilterRequest filter,
+            @Parameter(description = "Number of providers to return", example = "5")
+            @RequestParam(defaultValue = "5") int limit,
+            @Parameter(description = "How many days ahead to look, starting today", example = "14")
+            @RequestParam(defaultValue = "14") int horizonDays,
+            @Parameter(description = "Slot length in minutes (defaults to each provider's recommended duration)", example = "30")
+            @RequestParam(required = false) Integer durationMinutes) {
+        log.debug("Searching earliest slots with filter: {}", filter);
+        
+        List<EarliestSlotResponse> slots = availabilityService.findEarliestSlots(filter, limit, horizonDays, durationMinutes);
+        return ResponseEntity.ok(slots);
+    }
+
     @Operation(summary = "Get current provider profile", description = "Retrieves the profile of the currently authenticated provider")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Provider profile retrieved successfully"),
@@ -68,13 +124,40 @@ public class ProviderController {
         log.debug("Fetching provider profile for username: {}", principal.getName());
         
         // Find the provider by username
+        Provider provider = providerRepository.findProfileByUsername(principal.getName())
+            .orElseThrow(() -> new ResourceNotFoundException("Provider", "username", principal.getName()));
+        
+        // TODO: Create DTOs to control what data is exposed
+        return ResponseEntity.ok(provider);
+    }
+    
+    @Operation(summary = "Get appointment statistics", 
+              description = "Counts of the current provider's appointments by status, grouped by day, week or service")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully",
+                content = @Content(schema = @Schema(implementation = ProviderStatsResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid date range or grouping",
+                content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+        @ApiResponse(responseCode = "403", description = "Not a provider account",
+                content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('PROVIDER')")
+    public ResponseEntity<ProviderStatsResponse> getProviderStats(
+            Principal principal,
+            @Parameter(description = "First day (yyyy-MM-dd)", example = "2025-05-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (yyyy-MM-dd)", example = "2025-05-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "day, week or service", example = "week")
+            @RequestParam(defaultValue = "day") String groupBy) {
+        ProviderStatsResponse.Grouping grouping = ProviderStatsResponse.Grouping.parse(groupBy);
         Provider provider = userRepository.findByUsername(principal.getName())
             .filter(user -> user instanceof Provider)
             .map(user -> (Provider) user)
             .orElseThrow(() -> new ResourceNotFoundException("Provider", "username", principal.getName()));
         
-        // TODO: Create DTOs to control what data is exposed
-        return ResponseEntity.ok(provider);
+        return ResponseEntity.ok(providerStatsService.getStats(provider.getId(), from, to, grouping));
     }
     
     @Operation(summary = "Get provider by ID", description = "Retrieves a provider profile by ID")
@@ -87,6 +170,7 @@ public class ProviderController {
     public ResponseEntity<?> getProviderById(@PathVariable Long id) {
         log.debug("Fetching provider with ID: {}", id);
         
+        // Lookup by id is served from the second-level cache
         Provider provider = userRepository.findById(id)
             .filter(user -> user instanceof Provider)
             .map(user -> (Provider) user)
@@ -96,6 +180,36 @@ public class ProviderController {
         return ResponseEntity.ok(provider);
     }
     
+    @Operation(summary = "Get available slots", 
+              description = "Lists bookable slots of a provider within a date range, based on business hours and existing appointments")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Slots computed successfully",
+                content = @Content(array = @ArraySchema(schema = @Schema(implementation = TimeSlotResponse.class)))),
+        @ApiResponse(responseCode = "400", description = "Invalid date range",
+                content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Provider not found",
+                content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping("/{id}/slots")
+    public ResponseEntity<List<TimeSlotResponse>> getAvailableSlots(
+            @PathVariable Long id,
+            @Parameter(description = "Start date (yyyy-MM-dd)", example = "2025-05-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "End date (yyyy-MM-dd)", example = "2025-05-07")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Slot length in minutes (defaults to provider's recommended duration)", example = "30")
+            @RequestParam(required = false) Integer durationMinutes) {
+        log.debug("Fetching slots for provider {} from {} to {}", id, from, to);
+        
+        Provider provider = userRepository.findById(id)
+            .filter(user -> user instanceof Provider)
+            .map(user -> (Provider) user)
+            .orElseThrow(() -> new ResourceNotFoundException("Provider", "id", id));
+        
+        List<TimeSlotResponse> slots = availabilityService.findAvailableSlots(provider, from, to, durationMinutes);
+        return ResponseEntity.ok(slots);
+    }
+    
     @Operation(summary = "Update provider profile", description = "Updates the profile of the currently authenticated provider")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Provider profile updated successfully"),
@@ -114,9 +228,7 @@ public class ProviderController {
         log.debug("Updating profile for provider: {}", principal.getName());
         
         // Find the provider by username
-        Provider provider = userRepository.findByUsername(principal.getName())
-            .filter(user -> user instanceof Provider)
-            .map(user -> (Provider) user)
+        Provider provider = providerRepository.findProfileByUsername(principal.getName())
             .orElseThrow(() -> new ResourceNotFoundException("Provider", "username", principal.getName()));
         
         // Update provider fields
@@ -135,6 +247,10 @@ public class ProviderController {
         if (updateRequest.getAverageAppointmentDurationMinutes() != null) {
             provider.setAverageAppointmentDurationMinutes(updateRequest.getAverageAppointmentDurationMinutes());
         }
+        if (updateRequest.getServiceCapacities() != null) {
+            provider.getServiceCapacities().clear();
+            provider.getServiceCapacities().putAll(updateRequest.getServiceCapacities());
+        }
         
         // Update address if any address fields are provided
         if (updateRequest.getStreetAddress() != null || 
@@ -165,6 +281,7 @@ public class ProviderController {
         
         // Save the updated provider
         Provider updatedProvider = (Provider) userRepository.save(provider);
+        providerService.onProviderChanged(updatedProvider);
         log.info("Provider profile updated successfully for ID: {}", updatedProvider.getId());
         
         return ResponseEntity.ok(updatedProvider);
@@ -190,6 +307,7 @@ public class ProviderController {
         
         provider.setAvailable(available);
         userRepository.save(provider);
+        providerService.onProviderChanged(provider);
         
         String message = available 
             ? "Provider is now accepting appointments" 
@@ -218,6 +336,7 @@ public class ProviderController {
         
         provider.addService(serviceName);
         userRepository.save(provider);
+        providerService.onProviderChanged(provider);
         
         return ResponseEntity.ok(new MessageResponse("Service added successfully: " + serviceName));
     }
@@ -242,6 +361,7 @@ public class ProviderController {
         
         provider.removeService(serviceName);
         userRepository.save(provider);
+        providerService.onProviderChanged(provider);
         
         return ResponseEntity.ok(new MessageResponse("Service removed successfully: " + serviceName));
     }
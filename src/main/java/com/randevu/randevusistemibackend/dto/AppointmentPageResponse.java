@@ -0,0 +1,25 @@
+package com.randevu.randevusistemibackend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One page of appointments, newest first")
+public class AppointmentPageResponse {
+    
+    @Schema(description = "Appointments of this page")
+    private List<AppointmentResponse> items;
+    
+    @Schema(description = "Cursor to pass to fetch the next page; absent on the last page", 
+           example = "MjAyNS0wNS0wMVQxNDowMHw0Mg")
+    private String nextCursor;
+    
+    @Schema(description = "Whether more appointments follow this page", example = "true")
+    private boolean hasMore;
+}
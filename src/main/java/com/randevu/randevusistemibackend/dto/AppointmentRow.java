@@ -0,0 +1,53 @@
+package com.randevu.randevusistemibackend.dto;
+
+import com.randevu.randevusistemibackend.model.Appointment.AppointmentStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Flat projection of an appointment with the user and provider columns that
+ * {@link AppointmentResponse} shows. Filled by constructor-expression queries,
+ * so list endpoints read one row per appointment without loading entities.
+ */
+public record AppointmentRow(Long id,
+                             Long userId, String userUsername, String userFullName,
+                             String userEmail, String userPhone,
+                             Long providerId, String providerUsername, String providerFullName,
+                             String providerBusinessName, String providerDescription,
+                             String providerEmail, String providerPhone,
+                             LocalDateTime startTime, LocalDateTime endTime,
+                             String serviceName, String notes, AppointmentStatus status,
+                             LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+    private static final String SELECT_LIST = "SELECT new com.randevu.randevusistemibackend.dto.AppointmentRow(" +
+            "a.id, u.id, u.username, u.fullName, u.email, u.phone, " +
+            "p.id, p.username, p.fullName, p.businessName, p.description, p.email, p.phone, " +
+            "a.startTime, a.endTime, a.serviceName, a.notes, a.status, a.createdAt, a.updatedAt) ";
+    
+    /**
+     * Select list matching the record components, for queries over {@code Appointment a JOIN a.user u JOIN a.provider p}.
+     */
+    public static final String SELECT = SELECT_LIST + "FROM Appointment a JOIN a.user u JOIN a.provider p ";
+    
+    /**
+     * Same over {@code AppointmentHistory a}, which also reads archived months.
+     */
+    public static final String HISTORY_SELECT = SELECT_LIST + "FROM AppointmentHistory a JOIN a.user u JOIN a.provider p ";
+
+    public AppointmentResponse toResponse() {
+        return new AppointmentResponse(
+                id,
+                new AppointmentResponse.UserInfoDTO(userId, userUsername, userFullName, userEmail, userPhone),
+                new AppointmentResponse.ProviderInfoDTO(providerId, providerUsername, providerFullName,
+                        providerBusinessName, providerDescription, providerEmail, providerPhone),
+                startTime,
+                endTime,
+                startTime != null && endTime != null ? Duration.between(startTime, endTime).toMinutes() : 0,
+                serviceName,
+                notes,
+                status,
+                createdAt,
+                updatedAt);
+    }
+}
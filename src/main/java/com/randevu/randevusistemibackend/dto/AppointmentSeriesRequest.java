@@ -0,0 +1,73 @@
+package com.randevu.randevusistemibackend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request for booking a recurring series of appointments")
+public class AppointmentSeriesRequest {
+    
+    @NotNull
+    @Schema(description = "Provider ID", example = "1", required = true)
+    private Long providerId;
+    
+    @NotNull
+    @Future(message = "Appointment time must be in the future")
+    @Schema(description = "Start time of the first appointment (ISO format)", 
+           example = "2025-05-01T14:00:00", required = true)
+    private LocalDateTime firstStartTime;
+    
+    @Positive(message = "Duration must be positive")
+    @Schema(description = "Duration of each appointment in minutes (defaults to provider's recommended duration)", 
+           example = "45")
+    private Integer durationMinutes;
+    
+    @NotNull
+    @Schema(description = "How often the appointment repeats", example = "WEEKLY", required = true)
+    private Frequency frequency;
+    
+    @Min(value = 1, message = "Interval must be at least 1")
+    @Schema(description = "Repeat every N days/weeks/months", example = "1", defaultValue = "1")
+    private Integer interval = 1;
+    
+    @NotNull
+    @Min(value = 2, message = "A series needs at least 2 occurrences")
+    @Max(value = 52, message = "A series can have at most 52 occurrences")
+    @Schema(description = "Number of appointments in the series", example = "10", required = true)
+    private Integer occurrences;
+    
+    @Schema(description = "Service requested", example = "Physiotherapy Session")
+    private String serviceName;
+    
+    @Schema(description = "Notes for the provider about the appointments", 
+           example = "Post-surgery knee rehabilitation")
+    private String notes;
+    
+    public enum Frequency {
+        DAILY(ChronoUnit.DAYS),
+        WEEKLY(ChronoUnit.WEEKS),
+        MONTHLY(ChronoUnit.MONTHS);
+        
+        private final ChronoUnit unit;
+        
+        Frequency(ChronoUnit unit) {
+            this.unit = unit;
+        }
+        
+        public ChronoUnit getUnit() {
+            return unit;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.randevu.randevusistemibackend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request for confirming or cancelling many appointments at once")
+public class BulkAppointmentRequest {
+    
+    @NotNull
+    @Schema(description = "Status change to apply", example = "CONFIRM", required = true)
+    private Action action;
+    
+    @NotEmpty
+    @Size(max = 200, message = "At most 200 appointments can be changed at once")
+    @Schema(description = "IDs of the provider's appointments", example = "[1, 2, 3]", required = true)
+    private List<@NotNull Long> appointmentIds;
+    
+    public enum Action {
+        CONFIRM,
+        CANCEL
+    }
+}
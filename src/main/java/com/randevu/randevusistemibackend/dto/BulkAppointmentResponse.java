@@ -0,0 +1,54 @@
+package com.randevu.randevusistemibackend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Per-appointment outcome of a bulk status change")
+public class BulkAppointmentResponse {
+    
+    @Schema(description = "Number of appointments changed", example = "2")
+    private int succeeded;
+    
+    @Schema(description = "Number of appointments left unchanged", example = "1")
+    private int failed;
+    
+    @Schema(description = "Outcome for each requested appointment, in request order")
+    private List<ItemResult> results;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        
+        @Schema(description = "Appointment ID", example = "1")
+        private Long appointmentId;
+        
+        @Schema(description = "Whether the status change was applied", example = "true")
+        private boolean success;
+        
+        @Schema(description = "Error code when the change was not applied", example = "APPOINTMENT_CANCELLED")
+        private String errorCode;
+        
+        @Schema(description = "Error message when the change was not applied", 
+               example = "Cannot confirm a cancelled appointment")
+        private String message;
+        
+        @Schema(description = "Updated appointment when the change was applied")
+        private AppointmentResponse appointment;
+        
+        public static ItemResult success(AppointmentResponse appointment) {
+            return new ItemResult(appointment.getId(), true, null, null, appointment);
+        }
+        
+        public static ItemResult failure(Long appointmentId, String errorCode, String message) {
+            return new ItemResult(appointmentId, false, errorCode, message, null);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -44,6 +45,9 @@ public class ProviderDTO {
     @Schema(description = "Services offered by the provider")
     private Set<String> services;
     
+    @Schema(description = "Seats per session for services run as group sessions")
+    private Map<String, Integer> serviceCapacities;
+    
     @Schema(description = "Average appointment duration in minutes", example = "30")
     private Integer averageAppointmentDurationMinutes;
     
@@ -66,6 +70,7 @@ public class ProviderDTO {
         dto.setBusinessName(provider.getBusinessName());
         dto.setDescription(provider.getDescription());
         dto.setServices(provider.getServices());
+        dto.setServiceCapacities(provider.getServiceCapacities());
         dto.setAverageAppointmentDurationMinutes(provider.getAverageAppointmentDurationMinutes());
         dto.setAvailable(provider.isAvailable());
         
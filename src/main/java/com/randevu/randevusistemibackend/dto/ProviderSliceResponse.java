@@ -0,0 +1,31 @@
+package com.randevu.randevusistemibackend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One page of a provider search, for infinite scrolling")
+public class ProviderSliceResponse {
+    
+    @Schema(description = "Providers of this page")
+    private List<ProviderDTO> items;
+    
+    @Schema(description = "Page number (0-based)", example = "0")
+    private int pageNumber;
+    
+    @Schema(description = "Requested page size", example = "20")
+    private int pageSize;
+    
+    @Schema(description = "Whether more providers follow this page", example = "true")
+    private boolean hasNext;
+    
+    @Schema(description = "Approximate number of matching providers, cached for a short time; " +
+            "only present when requested", example = "137")
+    private Long approximateTotal;
+}
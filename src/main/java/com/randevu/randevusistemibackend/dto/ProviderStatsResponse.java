@@ -0,0 +1,65 @@
+package com.randevu.randevusistemibackend.dto;
+
+import com.randevu.randevusistemibackend.exception.BadRequestException;
+import com.randevu.randevusistemibackend.model.Appointment.AppointmentStatus;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Appointment counts of the current provider by status, grouped by day, week or service")
+public class ProviderStatsResponse {
+
+    public enum Grouping {
+        DAY, WEEK, SERVICE;
+
+        public static Grouping parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("groupBy must be day, week or service", "INVALID_STATS_GROUPING");
+            }
+        }
+    }
+
+    @Schema(description = "First day counted (by appointment start)", example = "2025-05-01")
+    private LocalDate from;
+
+    @Schema(description = "Last day counted (by appointment start)", example = "2025-05-31")
+    private LocalDate to;
+
+    @Schema(description = "How the buckets are grouped", example = "WEEK")
+    private Grouping groupBy;
+
+    @Schema(description = "Buckets with at least one appointment, in key order")
+    private List<StatsBucket> buckets;
+
+    @Schema(description = "Counts by status over the whole range")
+    private Map<AppointmentStatus, Long> totals;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Appointment counts of one day, week or service")
+    public static class StatsBucket {
+
+        @Schema(description = "Day (yyyy-MM-dd), Monday of the week (yyyy-MM-dd) or service name; " +
+                "null for appointments without a service", example = "2025-05-05")
+        private String key;
+
+        @Schema(description = "Counts by status")
+        private Map<AppointmentStatus, Long> counts;
+
+        @Schema(description = "Sum of all counts", example = "12")
+        private long total;
+    }
+}
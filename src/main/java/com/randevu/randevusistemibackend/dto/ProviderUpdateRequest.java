@@ -1,10 +1,13 @@
 package com.randevu.randevusistemibackend.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 /**
  * DTO for updating provider profile information
  */
@@ -29,6 +32,10 @@ public class ProviderUpdateRequest {
     @Schema(description = "Average appointment duration in minutes", example = "30")
     private Integer averageAppointmentDurationMinutes;
     
+    @Schema(description = "Seats per session for services run as group sessions; replaces the current settings", 
+           example = "{\"Yoga Class\": 12}")
+    private Map<String, @Min(value = 1, message = "Capacity must be at least 1") Integer> serviceCapacities;
+    
     // Address fields
     @Schema(description = "Street address of the provider location", example = "123 Main St")
     private String streetAddress;
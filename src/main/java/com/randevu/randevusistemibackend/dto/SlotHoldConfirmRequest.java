@@ -0,0 +1,20 @@
+package com.randevu.randevusistemibackend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Details added when turning a slot hold into an appointment")
+public class SlotHoldConfirmRequest {
+    
+    @Schema(description = "Service requested", example = "Dental Cleaning")
+    private String serviceName;
+    
+    @Schema(description = "Notes for the provider about the appointment", 
+           example = "First time visit, having tooth pain")
+    private String notes;
+}
@@ -0,0 +1,33 @@
+package com.randevu.randevusistemibackend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request for temporarily holding a provider's time slot")
+public class SlotHoldRequest {
+    
+    @NotNull
+    @Schema(description = "Provider ID", example = "1", required = true)
+    private Long providerId;
+    
+    @NotNull
+    @Future(message = "Appointment time must be in the future")
+    @Schema(description = "Start time of the slot to hold (ISO format)", 
+           example = "2025-05-01T14:00:00", required = true)
+    private LocalDateTime startTime;
+    
+    @Positive(message = "Duration must be positive")
+    @Schema(description = "Duration in minutes (defaults to provider's recommended duration)", 
+           example = "30")
+    private Integer durationMinutes;
+}
@@ -0,0 +1,31 @@
+package com.randevu.randevusistemibackend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A temporary hold on a provider's time slot")
+public class SlotHoldResponse {
+    
+    @Schema(description = "Hold ID, used to confirm or release the hold", example = "3f1c2a7e-8d4b-4f6a-9a0e-2b5c7d9e1f30")
+    private UUID holdId;
+    
+    @Schema(description = "Provider ID", example = "1")
+    private Long providerId;
+    
+    @Schema(description = "Held slot start time", example = "2025-05-01T14:00:00")
+    private LocalDateTime startTime;
+    
+    @Schema(description = "Held slot end time", example = "2025-05-01T14:30:00")
+    private LocalDateTime endTime;
+    
+    @Schema(description = "When the hold lapses unless confirmed", example = "2025-04-29T10:20:30")
+    private LocalDateTime expiresAt;
+}
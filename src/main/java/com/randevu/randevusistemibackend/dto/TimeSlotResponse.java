@@ -0,0 +1,21 @@
+package com.randevu.randevusistemibackend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A bookable time slot of a provider")
+public class TimeSlotResponse {
+    
+    @Schema(description = "Slot start time", example = "2025-05-01T14:00:00")
+    private LocalDateTime startTime;
+    
+    @Schema(description = "Slot end time", example = "2025-05-01T14:30:00")
+    private LocalDateTime endTime;
+}
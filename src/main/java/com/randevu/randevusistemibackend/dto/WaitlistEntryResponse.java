@@ -0,0 +1,58 @@
+package com.randevu.randevusistemibackend.dto;
+
+import com.randevu.randevusistemibackend.model.WaitlistEntry;
+import com.randevu.randevusistemibackend.model.WaitlistEntry.WaitlistStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A waitlist entry of the current user")
+public class WaitlistEntryResponse {
+    
+    @Schema(description = "Waitlist entry ID", example = "7")
+    private Long id;
+    
+    @Schema(description = "Provider ID", example = "1")
+    private Long providerId;
+    
+    @Schema(description = "Earliest acceptable start time", example = "2025-05-01T09:00:00")
+    private LocalDateTime windowStart;
+    
+    @Schema(description = "Latest acceptable end time", example = "2025-05-01T12:00:00")
+    private LocalDateTime windowEnd;
+    
+    @Schema(description = "Requested duration in minutes", example = "30")
+    private Integer durationMinutes;
+    
+    @Schema(description = "Service requested", example = "Dental Cleaning")
+    private String serviceName;
+    
+    @Schema(description = "Current status of the entry", example = "WAITING")
+    private WaitlistStatus status;
+    
+    @Schema(description = "Hold to confirm when a slot has been offered")
+    private UUID offeredHoldId;
+    
+    @Schema(description = "When the user joined the waitlist", example = "2025-04-29T10:15:30")
+    private LocalDateTime joinedAt;
+    
+    public static WaitlistEntryResponse fromEntity(WaitlistEntry entry) {
+        return new WaitlistEntryResponse(
+                entry.getId(),
+                entry.getProvider().getId(),
+                entry.getWindowStart(),
+                entry.getWindowEnd(),
+                entry.getDurationMinutes(),
+                entry.getServiceName(),
+                entry.getStatus(),
+                entry.getOfferedHoldId(),
+                entry.getJoinedAt());
+    }
+}
@@ -0,0 +1,42 @@
+package com.randevu.randevusistemibackend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request for joining a provider's waitlist")
+public class WaitlistRequest {
+    
+    @NotNull
+    @Schema(description = "Provider ID", example = "1", required = true)
+    private Long providerId;
+    
+    @NotNull
+    @Future(message = "Window must be in the future")
+    @Schema(description = "Earliest acceptable start time (ISO format)", 
+           example = "2025-05-01T09:00:00", required = true)
+    private LocalDateTime windowStart;
+    
+    @NotNull
+    @Future(message = "Window must be in the future")
+    @Schema(description = "Latest acceptable end time, on the same day (ISO format)", 
+           example = "2025-05-01T12:00:00", required = true)
+    private LocalDateTime windowEnd;
+    
+    @Positive(message = "Duration must be positive")
+    @Schema(description = "Duration of appointment in minutes (defaults to provider's recommended duration)", 
+           example = "30")
+    private Integer durationMinutes;
+    
+    @Schema(description = "Service requested", example = "Dental Cleaning")
+    private String serviceName;
+}
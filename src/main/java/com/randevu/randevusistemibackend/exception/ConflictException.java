@@ -0,0 +1,17 @@
+package com.randevu.randevusistemibackend.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Exception thrown when a request conflicts with the current state of a resource.
+ */
+public class ConflictException extends ApplicationException {
+    
+    public ConflictException(String message) {
+        super(message, "CONFLICT", HttpStatus.CONFLICT);
+    }
+    
+    public ConflictException(String message, String errorCode) {
+        super(message, errorCode, HttpStatus.CONFLICT);
+    }
+}
@@ -3,27 +3,41 @@ package com.randevu.randevusistemibackend.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "appointments")
+@NamedEntityGraph(name = Appointment.PARTICIPANTS_GRAPH, attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode("provider")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Appointment {
     
+    // For loads whose result is mailed or returned after the session is gone
+    public static final String PARTICIPANTS_GRAPH = "Appointment.participants";
+    
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointments_seq")
+    @SequenceGenerator(name = "appointments_seq", sequenceName = "appointments_id_seq", allocationSize = 50)
     private Long id;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "provider_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Provider provider;
     
     @Column(nullable = false)
@@ -42,6 +56,15 @@ public class Appointment {
     @Column(nullable = false)
     private AppointmentStatus status = AppointmentStatus.PENDING;
     
+    // Set when the appointment is one seat of a group session
+    @Column(name = "group_slot_id")
+    private Long groupSlotId;
+    
+    // Bumped on every change so concurrent status transitions cannot overwrite each other
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
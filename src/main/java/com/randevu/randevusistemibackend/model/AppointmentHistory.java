@@ -0,0 +1,51 @@
+package com.randevu.randevusistemibackend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view over active and archived appointments. Only the history endpoints read
+ * it; everything that books or changes appointments works on {@link Appointment}.
+ */
+@Entity
+@Immutable
+@Table(name = "appointment_history")
+@Getter
+@NoArgsConstructor
+public class AppointmentHistory {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "provider_id")
+    private Provider provider;
+
+    private LocalDateTime startTime;
+
+    private LocalDateTime endTime;
+
+    private String serviceName;
+
+    private String notes;
+
+    @Enumerated(EnumType.STRING)
+    private Appointment.AppointmentStatus status;
+
+    @Column(name = "group_slot_id")
+    private Long groupSlotId;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
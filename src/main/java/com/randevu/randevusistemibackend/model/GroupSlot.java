@@ -0,0 +1,44 @@
+package com.randevu.randevusistemibackend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One session of a group service with its seat counter.
+ * Seats are claimed with a conditional increment of {@code used}, never by counting appointments.
+ */
+@Entity
+@Table(name = "group_slots",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"provider_id", "service_name", "start_time"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupSlot {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne
+    @JoinColumn(name = "provider_id", nullable = false)
+    private Provider provider;
+    
+    @Column(name = "service_name", nullable = false, length = 100)
+    private String serviceName;
+    
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+    
+    @Column(name = "end_time", nullable = false)
+    private LocalDateTime endTime;
+    
+    @Column(nullable = false)
+    private Integer capacity;
+    
+    @Column(nullable = false)
+    private Integer used = 0;
+}
@@ -5,6 +5,9 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.DayOfWeek;
 import java.time.LocalTime;
@@ -19,23 +22,48 @@ import java.util.Set;
  */
 @Entity
 @DiscriminatorValue("provider")
+@NamedEntityGraph(name = Provider.PROFILE_GRAPH, attributeNodes = {
+        @NamedAttributeNode("services"),
+        @NamedAttributeNode("serviceCapacities"),
+        @NamedAttributeNode("address")
+})
+@NamedEntityGraph(name = Provider.SEARCH_GRAPH, attributeNodes = @NamedAttributeNode("address"))
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Provider extends User {
     
+    // Everything the provider's own profile shows, in one query
+    public static final String PROFILE_GRAPH = "Provider.profile";
+    
+    // Search pages are paginated, so only to-one associations are joined; services come in batches
+    public static final String SEARCH_GRAPH = "Provider.search";
+    
     @Column(length = 500)
     private String description;
     
     @Column(name = "business_name")
     private String businessName;
     
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection
     @CollectionTable(name = "provider_services", joinColumns = @JoinColumn(name = "provider_id"))
     @Column(name = "service_name")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "provider-services")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Set<String> services = new HashSet<>();
     
+    // Seats per session of services run as group sessions; services not listed take one client at a time
+    @ElementCollection
+    @CollectionTable(name = "provider_service_capacities", joinColumns = @JoinColumn(name = "provider_id"))
+    @MapKeyColumn(name = "service_name")
+    @Column(name = "capacity")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "provider-service-capacities")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Map<String, Integer> serviceCapacities = new HashMap<>();
+    
     @Column(name = "average_appointment_duration_minutes")
     private Integer averageAppointmentDurationMinutes = 30;
     
@@ -48,6 +76,7 @@ public class Provider extends User {
                     joinColumns = @JoinColumn(name = "provider_id"))
     @MapKeyEnumerated(EnumType.STRING)
     @MapKeyColumn(name = "day_of_week")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "provider-business-hours")
     private Map<DayOfWeek, BusinessHours> businessHours = new HashMap<>();
     
     @Column(name = "is_available")
@@ -67,6 +96,14 @@ public class Provider extends User {
         this.services.remove(service);
     }
     
+    /**
+     * Number of clients one session of the service can hold
+     */
+    public int getCapacityFor(String service) {
+        Integer capacity = service != null ? this.serviceCapacities.get(service) : null;
+        return capacity != null && capacity > 0 ? capacity : 1;
+    }
+    
     /**
      * Set business hours for a specific day of week
      */
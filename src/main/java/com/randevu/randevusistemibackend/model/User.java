@@ -3,7 +3,11 @@ package com.randevu.randevusistemibackend.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -13,13 +17,21 @@ import java.util.Set;
 @Inheritance(strategy = InheritanceType.JOINED)
 @DiscriminatorColumn(name = "user_type")
 @DiscriminatorValue("user")
+// Second-level cached; Hibernate caches a JOINED hierarchy at its root, so this covers providers too
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NamedEntityGraph(name = User.AUTH_GRAPH, attributeNodes = @NamedAttributeNode("roles"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
     
+    // Roles are loaded only when authenticating
+    public static final String AUTH_GRAPH = "User.auth";
+    
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(unique = true, nullable = false)
@@ -34,8 +46,11 @@ public class User {
     private String fullName;
     private String phone;
     
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection
     @Enumerated(EnumType.STRING)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-roles")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Set<Role> roles = new HashSet<>();
     
     private boolean enabled = true;
@@ -0,0 +1,67 @@
+package com.randevu.randevusistemibackend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A user's request to be offered a provider slot within a time window
+ * if one becomes free through a cancellation.
+ */
+@Entity
+@Table(name = "waitlist_entries")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
+    @ManyToOne
+    @JoinColumn(name = "provider_id", nullable = false)
+    private Provider provider;
+    
+    @Column(name = "window_start", nullable = false)
+    private LocalDateTime windowStart;
+    
+    @Column(name = "window_end", nullable = false)
+    private LocalDateTime windowEnd;
+    
+    @Column(name = "duration_minutes", nullable = false)
+    private Integer durationMinutes;
+    
+    @Column(length = 100)
+    private String serviceName;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WaitlistStatus status = WaitlistStatus.WAITING;
+    
+    @Column(name = "offered_hold_id")
+    private UUID offeredHoldId;
+    
+    @Column(name = "joined_at")
+    private LocalDateTime joinedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        this.joinedAt = LocalDateTime.now();
+    }
+    
+    public enum WaitlistStatus {
+        WAITING,
+        OFFERED,
+        EXPIRED,
+        CANCELLED
+    }
+}
@@ -1,17 +1,29 @@
 package com.randevu.randevusistemibackend.repository;
 
+import com.randevu.randevusistemibackend.dto.AppointmentRow;
 import com.randevu.randevusistemibackend.model.Appointment;
 import com.randevu.randevusistemibackend.model.Provider;
 import com.randevu.randevusistemibackend.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
     
+    int EXPORT_FETCH_SIZE = 500;
+    
     List<Appointment> findByUser(User user);
     
     List<Appointment> findByProvider(Provider provider);
@@ -20,24 +32,118 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     
     List<Appointment> findByProviderOrderByStartTimeDesc(Provider provider);
     
+    /**
+     * First page of a user's appointments, newest first, projected straight into rows.
+     * Returns a plain list so no count query runs.
+     */
+    @Query(AppointmentRow.HISTORY_SELECT + "WHERE u.id = :userId ORDER BY a.startTime DESC, a.id DESC")
+    List<AppointmentRow> findUserPage(@Param("userId") Long userId, Pageable pageable);
+    
+    /**
+     * Next page of a user's appointments, strictly after the (startTime, id) cursor.
+     */
+    @Query(AppointmentRow.HISTORY_SELECT + "WHERE u.id = :userId AND " +
+           "(a.startTime < :startTime OR (a.startTime = :startTime AND a.id < :id)) " +
+           "ORDER BY a.startTime DESC, a.id DESC")
+    List<AppointmentRow> findUserPageAfter(@Param("userId") Long userId,
+                                           @Param("startTime") LocalDateTime startTime,
+                                           @Param("id") Long id,
+                                           Pageable pageable);
+    
+    @Query(AppointmentRow.HISTORY_SELECT + "WHERE p.id = :providerId ORDER BY a.startTime DESC, a.id DESC")
+    List<AppointmentRow> findProviderPage(@Param("providerId") Long providerId, Pageable pageable);
+    
+    @Query(AppointmentRow.HISTORY_SELECT + "WHERE p.id = :providerId AND " +
+           "(a.startTime < :startTime OR (a.startTime = :startTime AND a.id < :id)) " +
+           "ORDER BY a.startTime DESC, a.id DESC")
+    List<AppointmentRow> findProviderPageAfter(@Param("providerId") Long providerId,
+                                               @Param("startTime") LocalDateTime startTime,
+                                               @Param("id") Long id,
+                                               Pageable pageable);
+    
+    @Query(AppointmentRow.SELECT + "WHERE p.id = :providerId AND a.startTime BETWEEN :start AND :end " +
+           "ORDER BY a.startTime")
+    List<AppointmentRow> findProviderRowsBetween(@Param("providerId") Long providerId,
+                                                 @Param("start") LocalDateTime start,
+                                                 @Param("end") LocalDateTime end);
+    
+    /**
+     * A provider's whole history, oldest first, read through a forward-only cursor
+     * {@value #EXPORT_FETCH_SIZE} rows at a time. Must be consumed inside a transaction
+     * and closed; PostgreSQL only honours the fetch size with autocommit off.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query(AppointmentRow.HISTORY_SELECT + "WHERE p.id = :providerId ORDER BY a.startTime, a.id")
+    Stream<AppointmentRow> streamProviderRows(@Param("providerId") Long providerId);
+    
     List<Appointment> findByProviderAndStartTimeBetween(Provider provider, LocalDateTime start, LocalDateTime end);
     
     List<Appointment> findByUserAndStartTimeBetween(User user, LocalDateTime start, LocalDateTime end);
     
     @Query("SELECT a FROM Appointment a WHERE a.provider = :provider AND " +
-           "((a.startTime <= :endTime AND a.endTime >= :startTime) OR " +
-           "(a.startTime >= :startTime AND a.startTime < :endTime)) AND " +
+           "a.startTime < :endTime AND a.endTime > :startTime AND " +
            "a.status NOT IN ('CANCELLED')")
     List<Appointment> findOverlappingAppointments(@Param("provider") Provider provider, 
                                                 @Param("startTime") LocalDateTime startTime,
                                                 @Param("endTime") LocalDateTime endTime);
     
+    /**
+     * Intervals are half-open [start, end), the same as the appointments_no_overlap constraint:
+     * an appointment may start exactly when another ends.
+     */
     @Query("SELECT CASE WHEN COUNT(a) > 0 THEN true ELSE false END FROM Appointment a WHERE " +
            "a.provider = :provider AND " +
-           "((a.startTime <= :endTime AND a.endTime > :startTime) OR " +
-           "(a.startTime >= :startTime AND a.startTime < :endTime)) AND " +
+           "a.startTime < :endTime AND a.endTime > :startTime AND " +
            "a.status NOT IN ('CANCELLED')")
     boolean hasOverlappingAppointments(@Param("provider") Provider provider, 
                                      @Param("startTime") LocalDateTime startTime,
                                      @Param("endTime") LocalDateTime endTime);
-}
\ No newline at end of file
+    
+    @Query("SELECT a FROM Appointment a WHERE a.provider.id = :providerId AND " +
+           "a.endTime > :after AND a.status NOT IN ('CANCELLED') ORDER BY a.startTime")
+    List<Appointment> findActiveByProviderIdEndingAfter(@Param("providerId") Long providerId,
+                                                        @Param("after") LocalDateTime after);
+    
+    @Query("SELECT a FROM Appointment a WHERE a.provider.id = :providerId AND " +
+           "a.startTime < :to AND a.endTime > :from AND " +
+           "a.status NOT IN ('CANCELLED') ORDER BY a.startTime")
+    List<Appointment> findActiveByProviderIdBetween(@Param("providerId") Long providerId,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to);
+    
+    @Query("SELECT a FROM Appointment a WHERE a.provider.id IN :providerIds AND " +
+           "a.startTime < :to AND a.endTime > :from AND " +
+           "a.status NOT IN ('CANCELLED') ORDER BY a.provider.id, a.startTime")
+    List<Appointment> findActiveByProviderIdsBetween(@Param("providerIds") Collection<Long> providerIds,
+                                                     @Param("from") LocalDateTime from,
+                                                     @Param("to") LocalDateTime to);
+    
+    @Query("SELECT CASE WHEN COUNT(a) > 0 THEN true ELSE false END FROM Appointment a WHERE " +
+           "a.groupSlotId = :groupSlotId AND a.user.id = :userId AND a.status NOT IN ('CANCELLED')")
+    boolean hasSeatInGroupSlot(@Param("groupSlotId") Long groupSlotId, @Param("userId") Long userId);
+    
+    @EntityGraph(Appointment.PARTICIPANTS_GRAPH)
+    Optional<Appointment> findWithParticipantsById(Long id);
+    
+    @EntityGraph(Appointment.PARTICIPANTS_GRAPH)
+    @Query("SELECT a FROM Appointment a WHERE a.id IN :ids AND a.provider.id = :providerId")
+    List<Appointment> findByIdsAndProviderId(@Param("ids") Collection<Long> ids,
+                                             @Param("providerId") Long providerId);
+    
+    /**
+     * Move an appointment to a new status only if neither its status nor its version changed
+     * since it was read. Returns 0 when another transaction got there first.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Appointment a SET a.status = :newStatus, a.version = a.version + 1, a.updatedAt = :updatedAt " +
+           "WHERE a.id = :id AND a.status = :expectedStatus AND a.version = :version")
+    int updateStatusIfUnchanged(@Param("id") Long id,
+                                @Param("expectedStatus") Appointment.AppointmentStatus expectedStatus,
+                                @Param("version") Long version,
+                                @Param("newStatus") Appointment.AppointmentStatus newStatus,
+                                @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -0,0 +1,30 @@
+package com.randevu.randevusistemibackend.repository;
+
+import com.randevu.randevusistemibackend.model.GroupSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface GroupSlotRepository extends JpaRepository<GroupSlot, Long> {
+    
+    @Query("SELECT g FROM GroupSlot g WHERE g.provider.id = :providerId AND " +
+           "g.serviceName = :serviceName AND g.startTime = :startTime")
+    Optional<GroupSlot> findSession(@Param("providerId") Long providerId,
+                                    @Param("serviceName") String serviceName,
+                                    @Param("startTime") LocalDateTime startTime);
+    
+    /**
+     * Take one seat if any is left. Returns 0 when the session is full.
+     */
+    @Modifying
+    @Query("UPDATE GroupSlot g SET g.used = g.used + 1 WHERE g.id = :id AND g.used < g.capacity")
+    int claimSeat(@Param("id") Long id);
+    
+    @Modifying
+    @Query("UPDATE GroupSlot g SET g.used = g.used - 1 WHERE g.id = :id AND g.used > 0")
+    int releaseSeat(@Param("id") Long id);
+}
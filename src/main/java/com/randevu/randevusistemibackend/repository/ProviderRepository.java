@@ -1,15 +1,24 @@
 package com.randevu.randevusistemibackend.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.randevu.randevusistemibackend.model.Provider;
 
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface ProviderRepository extends JpaRepository<Provider, Long> {
-    Page<Provider> findAll(Specification<Provider> spec, Pageable pageable);
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ProviderRepository extends JpaRepository<Provider, Long>, ProviderSearchRepository {
+    long count(Specification<Provider> spec);
+    
+    @EntityGraph(Provider.PROFILE_GRAPH)
+    Optional<Provider> findProfileByUsername(String username);
+    
+    @Query("SELECT DISTINCT p FROM Provider p LEFT JOIN FETCH p.businessHours WHERE p.id IN :ids")
+    List<Provider> findWithBusinessHoursByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,17 @@
+package com.randevu.randevusistemibackend.repository;
+
+import com.randevu.randevusistemibackend.model.Provider;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface ProviderSearchRepository {
+    
+    /**
+     * One page of providers matching the specification, with their addresses. Reads
+     * pageSize + 1 rows instead of running a COUNT; the extra row only tells whether
+     * another page follows. Unsorted pages are ordered by id so pages do not overlap.
+     */
+    Slice<Provider> findSlice(Specification<Provider> spec, Pageable pageable);
+}
@@ -0,0 +1,49 @@
+package com.randevu.randevusistemibackend.repository;
+
+import com.randevu.randevusistemibackend.model.Provider;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+class ProviderSearchRepositoryImpl implements ProviderSearchRepository {
+    
+    private final EntityManager entityManager;
+    
+    @Override
+    public Slice<Provider> findSlice(Specification<Provider> spec, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Provider> query = criteriaBuilder.createQuery(Provider.class);
+        Root<Provider> root = query.from(Provider.class);
+        
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root).orderBy(pageable.getSort().isSorted()
+                ? QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder)
+                : List.of(criteriaBuilder.asc(root.get("id"))));
+        
+        List<Provider> rows = entityManager.createQuery(query)
+                .setHint(SpecHints.HINT_SPEC_LOAD_GRAPH, entityManager.getEntityGraph(Provider.SEARCH_GRAPH))
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+}
@@ -1,6 +1,7 @@
 package com.randevu.randevusistemibackend.repository;
 
 import com.randevu.randevusistemibackend.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
@@ -8,6 +9,8 @@ import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+    @EntityGraph(User.AUTH_GRAPH)
+    Optional<User> findWithRolesByUsername(String username);
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
@@ -0,0 +1,40 @@
+package com.randevu.randevusistemibackend.repository;
+
+import com.randevu.randevusistemibackend.model.User;
+import com.randevu.randevusistemibackend.model.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+    
+    List<WaitlistEntry> findByUserOrderByJoinedAtDesc(User user);
+    
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.provider.id = :providerId AND " +
+           "w.status = 'WAITING' AND w.windowEnd > :after")
+    List<WaitlistEntry> findWaitingByProviderId(@Param("providerId") Long providerId,
+                                                @Param("after") LocalDateTime after);
+    
+    /**
+     * Move a waiting entry to OFFERED. Returns 0 if another node already offered or it was cancelled.
+     */
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = 'OFFERED', w.offeredHoldId = :holdId " +
+           "WHERE w.id = :id AND w.status = 'WAITING'")
+    int markOffered(@Param("id") Long id, @Param("holdId") UUID holdId);
+    
+    /**
+     * Move the entry offered under an expired hold to EXPIRED. Returns 0 if the hold was not a waitlist offer.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE WaitlistEntry w SET w.status = 'EXPIRED' " +
+           "WHERE w.offeredHoldId = :holdId AND w.status = 'OFFERED'")
+    int expireOffer(@Param("holdId") UUID holdId);
+}
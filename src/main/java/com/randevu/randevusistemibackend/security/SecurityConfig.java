@@ -70,7 +70,7 @@ public class SecurityConfig {
             .csrf(AbstractHttpConfigurer::disable)
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
-                .requestMatchers("/api/provider/search", "/api/provider/{id}", "/api/provider/profile").permitAll()
+                .requestMatchers("/api/provider/search", "/api/provider/search/slice", "/api/provider/earliest", "/api/provider/{id}", "/api/provider/{id}/slots", "/api/provider/profile").permitAll()
                 .requestMatchers("/api/provider/**").hasRole("PROVIDER")
                 .anyRequest().permitAll()
             )
@@ -195,7 +195,7 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:4200"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "Idempotency-Key"));
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
         return source;
@@ -0,0 +1,187 @@
+package com.randevu.randevusistemibackend.service;
+
+import com.randevu.randevusistemibackend.model.Appointment;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves appointments that have ended out of the open states: confirmed ones become
+ * COMPLETED and ones the provider never confirmed become NO_SHOW.
+ *
+ * Each batch is one set-based UPDATE over the next page of ended rows in
+ * (end_time, id) order, committed on its own; the last row updated is the cursor
+ * for the next page, so nothing is loaded into memory and no page is scanned twice.
+ * Ended intervals stay non-cancelled, so the in-memory booking indexes are unaffected.
+ */
+@Component
+@Slf4j
+public class AppointmentCompletionJob {
+
+    // The rollup rows move with the status change in the same statement, in primary key order.
+    // The batch carries start_time, the partition key, so each row is found in its own month's
+    // primary key index instead of probing every partition by id.
+    private static final String TRANSITION_BATCH_SQL =
+            "WITH batch AS (" +
+            "  SELECT id, start_time FROM appointments" +
+            "  WHERE status = ? AND end_time < ? AND (end_time, id) > (?, ?)" +
+            "  ORDER BY end_time, id LIMIT ?" +
+            "), moved AS (" +
+            "  UPDATE appointments a SET status = ?, version = a.version + 1, updated_at = ? " +
+            "  FROM batch WHERE a.id = batch.id AND a.start_time = batch.start_time AND a.status = ? " +
+            "  RETURNING a.id, a.end_time, a.provider_id, a.start_time, a.service_name" +
+            "), rollup AS (" +
+            "  INSERT INTO provider_daily_stats (provider_id, day, service_name, status, appointment_count)" +
+            "  SELECT m.provider_id, CAST(m.start_time AS date), COALESCE(m.service_name, ''), d.status, d.delta * count(*)" +
+            "  FROM moved m CROSS JOIN (VALUES (CAST(? AS varchar), -1), (CAST(? AS varchar), 1)) AS d(status, delta)" +
+            "  GROUP BY 1, 2, 3, d.status, d.delta ORDER BY 1, 2, 3, 4" +
+            "  ON CONFLICT (provider_id, day, service_name, status)" +
+            "  DO UPDATE SET appointment_count = provider_daily_stats.appointment_count + EXCLUDED.appointment_count" +
+            ") " +
+            "SELECT id, end_time, provider_id, start_time, service_name FROM moved";
+
+    private static final String OLDEST_OPEN_SQL =
+            "SELECT MIN(end_time) FROM appointments WHERE status IN ('PENDING', 'CONFIRMED') AND end_time < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProviderStatsService providerStatsService;
+    private final int batchSize;
+    private final long graceMinutes;
+    private final Timer runTimer;
+    private final Counter completedCounter;
+    private final Counter noShowCounter;
+    private final AtomicLong lastRunProcessed = new AtomicLong();
+    private final AtomicLong lastRunEpochSeconds = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public AppointmentCompletionJob(JdbcTemplate jdbcTemplate,
+                                    ProviderStatsService providerStatsService,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.booking.completion.batch-size:500}") int batchSize,
+                                    @Value("${app.booking.completion.grace-minutes:30}") long graceMinutes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.providerStatsService = providerStatsService;
+        this.batchSize = batchSize;
+        this.graceMinutes = graceMinutes;
+        this.runTimer = Timer.builder("appointments.completion.run")
+                .description("Duration of an appointment completion run")
+                .register(meterRegistry);
+        this.completedCounter = Counter.builder("appointments.completion.transitions")
+                .tag("status", Appointment.AppointmentStatus.COMPLETED.name())
+                .description("Appointments moved to a final status by the completion job")
+                .register(meterRegistry);
+        this.noShowCounter = Counter.builder("appointments.completion.transitions")
+                .tag("status", Appointment.AppointmentStatus.NO_SHOW.name())
+                .description("Appointments moved to a final status by the completion job")
+                .register(meterRegistry);
+        Gauge.builder("appointments.completion.last-run.processed", lastRunProcessed, AtomicLong::get)
+                .description("Appointments transitioned by the last run")
+                .register(meterRegistry);
+        Gauge.builder("appointments.completion.last-run.timestamp", lastRunEpochSeconds, AtomicLong::get)
+                .description("Epoch seconds when the last run finished")
+                .register(meterRegistry);
+        Gauge.builder("appointments.completion.lag.seconds", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest ended appointment still waiting to be transitioned")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.booking.completion.interval-ms:300000}",
+               initialDelayString = "${app.booking.completion.initial-delay-ms:60000}")
+    public void run() {
+        runTimer.record(() -> {
+            LocalDateTime cutoff = LocalDateTime.now().minusMinutes(graceMinutes);
+            try {
+                long completed = transitionAll(Appointment.AppointmentStatus.CONFIRMED,
+                        Appointment.AppointmentStatus.COMPLETED, cutoff, completedCounter);
+                long noShows = transitionAll(Appointment.AppointmentStatus.PENDING,
+                        Appointment.AppointmentStatus.NO_SHOW, cutoff, noShowCounter);
+                lastRunProcessed.set(completed + noShows);
+                if (completed + noShows > 0) {
+                    log.info("Completion job marked {} appointments COMPLETED and {} NO_SHOW", completed, noShows);
+                }
+                updateLag(cutoff);
+            } catch (RuntimeException e) {
+                log.error("Appointment completion job failed: {}", e.getMessage(), e);
+            }
+            lastRunEpochSeconds.set(System.currentTimeMillis() / 1000);
+        });
+    }
+
+    /**
+     * Transition every appointment in {@code from} that ended before the cutoff, one page per statement.
+     */
+    private long transitionAll(Appointment.AppointmentStatus from, Appointment.AppointmentStatus to,
+                               LocalDateTime cutoff, Counter counter) {
+        Timestamp cursorEnd = new Timestamp(0);
+        long cursorId = 0;
+        long total = 0;
+
+        while (true) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Cursor> updated = jdbcTemplate.query(TRANSITION_BATCH_SQL,
+                    (rs, rowNum) -> new Cursor(rs.getLong(1), rs.getTimestamp(2), new ProviderStatsService.Bucket(
+                            rs.getLong(3), rs.getTimestamp(4).toLocalDateTime().toLocalDate(),
+                            rs.getString(5) != null ? rs.getString(5) : "", from)),
+                    from.name(), Timestamp.valueOf(cutoff), cursorEnd, cursorId, batchSize,
+                    to.name(), now, from.name(), from.name(), to.name());
+            if (updated.isEmpty()) {
+                return total;
+            }
+            providerStatsService.onRollupsUpdated(rollupDeltas(updated, to));
+
+            total += updated.size();
+            counter.increment(updated.size());
+
+            // RETURNING carries no order guarantee, so take the greatest key of the page
+            Cursor last = updated.stream()
+                    .max((a, b) -> a.endTime().equals(b.endTime())
+                            ? Long.compare(a.id(), b.id())
+                            : a.endTime().compareTo(b.endTime()))
+                    .orElseThrow();
+            cursorEnd = last.endTime();
+            cursorId = last.id();
+            log.debug("Moved {} {} appointments to {}, cursor at {}/{}", updated.size(), from, to, cursorEnd, cursorId);
+
+            if (updated.size() < batchSize) {
+                return total;
+            }
+        }
+    }
+
+    private static Map<ProviderStatsService.Bucket, Long> rollupDeltas(List<Cursor> updated,
+                                                                       Appointment.AppointmentStatus to) {
+        Map<ProviderStatsService.Bucket, Long> deltas = new HashMap<>();
+        for (Cursor row : updated) {
+            ProviderStatsService.Bucket left = row.bucket();
+            deltas.merge(left, -1L, Long::sum);
+            deltas.merge(new ProviderStatsService.Bucket(left.providerId(), left.day(), left.serviceName(), to),
+                    1L, Long::sum);
+        }
+        return deltas;
+    }
+
+    private void updateLag(LocalDateTime cutoff) {
+        Timestamp oldest = jdbcTemplate.queryForObject(OLDEST_OPEN_SQL, Timestamp.class, Timestamp.valueOf(cutoff));
+        lagSeconds.set(oldest == null ? 0
+                : Math.max(0, Duration.between(oldest.toLocalDateTime(), LocalDateTime.now()).getSeconds()));
+    }
+
+    private record Cursor(long id, Timestamp endTime, ProviderStatsService.Bucket bucket) {
+    }
+}
@@ -0,0 +1,157 @@
+package com.randevu.randevusistemibackend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.randevu.randevusistemibackend.dto.AppointmentRow;
+import com.randevu.randevusistemibackend.exception.BadRequestException;
+import com.randevu.randevusistemibackend.model.Provider;
+import com.randevu.randevusistemibackend.repository.AppointmentRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Writes a provider's full appointment history to an output stream as NDJSON or CSV.
+ *
+ * Rows come from a database cursor as flat projections and are written one at a time,
+ * so nothing is held in the persistence context and memory stays flat however long
+ * the history is.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AppointmentExportService {
+
+    private static final int FLUSH_EVERY = AppointmentRepository.EXPORT_FETCH_SIZE;
+
+    private static final String CSV_HEADER = "id,startTime,endTime,durationMinutes,status,serviceName," +
+            "userFullName,userEmail,userPhone,notes,createdAt,updatedAt";
+
+    private final AppointmentRepository appointmentRepository;
+    private final ObjectMapper objectMapper;
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Export format must be ndjson or csv", "INVALID_EXPORT_FORMAT");
+            }
+        }
+    }
+
+    /**
+     * Stream every appointment of the provider to {@code out}, oldest first. The stream is
+     * flushed but not closed.
+     */
+    @Transactional(readOnly = true)
+    public long exportProviderAppointments(Provider provider, Format format, OutputStream out) throws IOException {
+        try (Stream<AppointmentRow> rows = appointmentRepository.streamProviderRows(provider.getId())) {
+            long written = format == Format.CSV
+                    ? writeCsv(rows.iterator(), out)
+                    : writeNdjson(rows.iterator(), out);
+            log.info("Exported {} appointments of provider {} as {}", written, provider.getId(), format);
+            return written;
+        }
+    }
+
+    private long writeNdjson(Iterator<AppointmentRow> rows, OutputStream out) throws IOException {
+        long written = 0;
+        try (SequenceWriter writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(out)) {
+            while (rows.hasNext()) {
+                writer.write(rows.next().toResponse());
+                if (++written % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        if (written > 0) {
+            out.write('\n');
+        }
+        out.flush();
+        return written;
+    }
+
+    private long writeCsv(Iterator<AppointmentRow> rows, OutputStream out) throws IOException {
+        // Not closed: that would close the caller's stream
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+
+        long written = 0;
+        while (rows.hasNext()) {
+            AppointmentRow row = rows.next();
+            writer.write(String.join(",",
+                    String.valueOf(row.id()),
+                    csv(row.startTime()),
+                    csv(row.endTime()),
+                    row.startTime() != null && row.endTime() != null
+                            ? String.valueOf(Duration.between(row.startTime(), row.endTime()).toMinutes()) : "",
+                    csv(row.status()),
+                    csv(row.serviceName()),
+                    csv(row.userFullName()),
+                    csv(row.userEmail()),
+                    csv(row.userPhone()),
+                    csv(row.notes()),
+                    csv(row.createdAt()),
+                    csv(row.updatedAt())));
+            writer.write("\r\n");
+            if (++written % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return written;
+    }
+
+    /**
+     * RFC 4180 field: quoted when it contains a separator, quote or line break, with quotes doubled.
+     */
+    static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
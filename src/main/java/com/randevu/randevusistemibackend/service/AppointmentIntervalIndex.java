@@ -0,0 +1,220 @@
+package com.randevu.randevusistemibackend.service;
+
+import com.randevu.randevusistemibackend.model.Appointment;
+import com.randevu.randevusistemibackend.model.Provider;
+import com.randevu.randevusistemibackend.repository.AppointmentRepository;
+import com.randevu.randevusistemibackend.util.TransactionCallbacks;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of non-cancelled appointment intervals per provider.
+ * Rejects requests that overlap a known appointment without a database round-trip.
+ * A request the index finds free is still checked with
+ * {@link AppointmentRepository#hasOverlappingAppointments}, since the index can miss
+ * appointments booked on other nodes.
+ *
+ * Intervals are loaded on demand (only appointments that have not ended yet) and kept
+ * in sync by {@link AppointmentService} after each transaction commits. Writes made by
+ * other nodes are picked up when the per-provider entry expires.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AppointmentIntervalIndex {
+
+    private final AppointmentRepository appointmentRepository;
+
+    @Value("${app.booking.interval-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.booking.interval-index.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${app.booking.interval-index.max-providers:10000}")
+    private int maxProviders;
+
+    private final Map<Long, ProviderIntervals> index = new ConcurrentHashMap<>();
+
+    // Bumped on every committed change so a concurrent load can detect it missed a write.
+    // Only providers being loaded or kept in the index have one; it goes with their entry.
+    private final Map<Long, AtomicLong> modifications = new ConcurrentHashMap<>();
+
+    /**
+     * Check whether the given time range overlaps a non-cancelled appointment of the provider.
+     * Uses the same semantics as {@link AppointmentRepository#hasOverlappingAppointments}.
+     * Only an overlap is answered from memory; a free range is confirmed by the database,
+     * so callers holding the provider's booking lock also see other nodes' bookings.
+     */
+    public boolean hasOverlappingAppointments(Provider provider, LocalDateTime startTime, LocalDateTime endTime) {
+        if (enabled) {
+            ProviderIntervals intervals = getOrLoad(provider.getId());
+            if (intervals != null && intervals.covers(startTime) && intervals.overlaps(startTime, endTime)) {
+                return true;
+            }
+        }
+        return appointmentRepository.hasOverlappingAppointments(provider, startTime, endTime);
+    }
+
+    /**
+     * Check the overlap against already loaded intervals only, never touching the database.
+     * Returns false when the provider's index is cold, expired or does not cover the range.
+     */
+    public boolean isKnownOverlap(Long providerId, LocalDateTime startTime, LocalDateTime endTime) {
+        ProviderIntervals intervals = enabled ? index.get(providerId) : null;
+        return intervals != null && !intervals.isExpired(ttlSeconds) && intervals.covers(startTime)
+                && intervals.overlaps(startTime, endTime);
+    }
+
+    /**
+     * Record a created or updated appointment once the surrounding transaction commits.
+     * Cancelled appointments are removed from the index.
+     */
+    public void onAppointmentSaved(Appointment appointment) {
+        Long providerId = appointment.getProvider().getId();
+        Interval interval = new Interval(appointment.getId(), appointment.getStartTime(), appointment.getEndTime());
+        boolean active = appointment.getStatus() != Appointment.AppointmentStatus.CANCELLED;
+
+        TransactionCallbacks.afterCommit(() -> {
+            AtomicLong counter = modifications.get(providerId);
+            if (counter != null) {
+                counter.incrementAndGet();
+            }
+            ProviderIntervals intervals = index.get(providerId);
+            if (intervals == null) {
+                return;
+            }
+            if (active) {
+                intervals.put(interval);
+            } else {
+                intervals.remove(interval.id());
+            }
+        });
+    }
+
+    private ProviderIntervals getOrLoad(Long providerId) {
+        ProviderIntervals intervals = index.get(providerId);
+        if (intervals != null && !intervals.isExpired(ttlSeconds)) {
+            return intervals;
+        }
+
+        AtomicLong counter = modifications.computeIfAbsent(providerId, id -> new AtomicLong());
+        long modificationsBefore = counter.get();
+        LocalDateTime coveredFrom = LocalDateTime.now();
+        try {
+            List<Appointment> active = appointmentRepository.findActiveByProviderIdEndingAfter(providerId, coveredFrom);
+            ProviderIntervals loaded = new ProviderIntervals(coveredFrom);
+            active.forEach(a -> loaded.put(new Interval(a.getId(), a.getStartTime(), a.getEndTime())));
+
+            // A write committed while we were loading (or the counter was dropped and may have
+            // missed one); don't install a snapshot that may miss it
+            if (modifications.get(providerId) != counter || counter.get() != modificationsBefore) {
+                log.debug("Interval index load for provider {} raced with a write, using database", providerId);
+                if (index.get(providerId) == null) {
+                    modifications.remove(providerId, counter);
+                }
+                return null;
+            }
+
+            evictIfFull();
+            index.put(providerId, loaded);
+            log.debug("Loaded {} active intervals into index for provider {}", active.size(), providerId);
+            return loaded;
+        } catch (RuntimeException e) {
+            log.warn("Failed to load interval index for provider {}: {}", providerId, e.getMessage());
+            drop(providerId);
+            return null;
+        }
+    }
+
+    private void evictIfFull() {
+        if (index.size() < maxProviders) {
+            return;
+        }
+        index.entrySet().stream()
+                .min(Comparator.comparing(e -> e.getValue().loadedAt))
+                .ifPresent(e -> drop(e.getKey()));
+    }
+
+    private void drop(Long providerId) {
+        index.remove(providerId);
+        modifications.remove(providerId);
+    }
+
+    private record Interval(Long id, LocalDateTime start, LocalDateTime end) {
+
+        static final Comparator<Interval> ORDER = Comparator
+                .comparing(Interval::start)
+                .thenComparing(Interval::id, Comparator.nullsFirst(Comparator.naturalOrder()));
+    }
+
+    /**
+     * Sorted intervals of one provider. Tracking the longest interval bounds the
+     * range of start times that can possibly overlap a query.
+     */
+    private static final class ProviderIntervals {
+
+        private final LocalDateTime coveredFrom;
+        private final LocalDateTime loadedAt = LocalDateTime.now();
+        private final NavigableSet<Interval> byStart = new TreeSet<>(Interval.ORDER);
+        private final Map<Long, Interval> byId = new HashMap<>();
+        private Duration longest = Duration.ZERO;
+
+        ProviderIntervals(LocalDateTime coveredFrom) {
+            this.coveredFrom = coveredFrom;
+        }
+
+        boolean isExpired(long ttlSeconds) {
+            return loadedAt.plusSeconds(ttlSeconds).isBefore(LocalDateTime.now());
+        }
+
+        boolean covers(LocalDateTime startTime) {
+            return !startTime.isBefore(coveredFrom);
+        }
+
+        synchronized void put(Interval interval) {
+            remove(interval.id());
+            byStart.add(interval);
+            byId.put(interval.id(), interval);
+            Duration length = Duration.between(interval.start(), interval.end());
+            if (length.compareTo(longest) > 0) {
+                longest = length;
+            }
+        }
+
+        synchronized void remove(Long id) {
+            Interval existing = byId.remove(id);
+            if (existing != null) {
+                byStart.remove(existing);
+            }
+        }
+
+        synchronized boolean overlaps(LocalDateTime startTime, LocalDateTime endTime) {
+            // Anything starting before startTime - longest has already ended
+            // A null id sorts first, so intervals starting exactly at endTime are excluded
+            Interval from = new Interval(null, startTime.minus(longest), null);
+            Interval to = new Interval(null, endTime, null);
+            for (Interval candidate : byStart.subSet(from, true, to, false)) {
+                if (candidate.end().isAfter(startTime)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.randevu.randevusistemibackend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Keeps the monthly partitions of the appointments table in shape: creates the partitions
+ * of the coming months before bookings reach them, and moves months older than the archive
+ * horizon to appointments_archive. Archived rows stay readable through the
+ * appointment_history view, while range and overlap queries no longer visit them.
+ *
+ * The partition DDL lives in database functions (V5 migration) that serialize on an
+ * advisory lock, so several nodes running the job at once do not collide.
+ */
+@Component
+@Slf4j
+public class AppointmentPartitionJob {
+
+    private static final String PARTITION_PREFIX = "appointments_p";
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String ACTIVE_PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = 'appointments'::regclass AND c.relname LIKE 'appointments\\_p%' " +
+            "ORDER BY c.relname";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private final int horizonMonths;
+    private final String archiveTablespace;
+    private final Counter createdCounter;
+    private final Counter archivedCounter;
+
+    public AppointmentPartitionJob(JdbcTemplate jdbcTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.appointments.partitions.months-ahead:3}") int monthsAhead,
+                                   @Value("${app.appointments.archive.horizon-months:24}") int horizonMonths,
+                                   @Value("${app.appointments.archive.tablespace:}") String archiveTablespace) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+        this.horizonMonths = horizonMonths;
+        this.archiveTablespace = archiveTablespace.isBlank() ? null : archiveTablespace;
+        this.createdCounter = Counter.builder("appointments.partitions.created")
+                .description("Monthly appointment partitions created ahead of time")
+                .register(meterRegistry);
+        this.archivedCounter = Counter.builder("appointments.partitions.archived")
+                .description("Monthly appointment partitions moved to the archive")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.appointments.partitions.interval-ms:21600000}",
+               initialDelayString = "${app.appointments.partitions.initial-delay-ms:60000}")
+    public void run() {
+        YearMonth current = YearMonth.now();
+        try {
+            createUpcoming(current);
+            archiveBefore(current.minusMonths(horizonMonths));
+        } catch (RuntimeException e) {
+            log.error("Appointment partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void createUpcoming(YearMonth current) {
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            Boolean created = jdbcTemplate.queryForObject("SELECT create_appointment_partition(?)",
+                    Boolean.class, Date.valueOf(month.atDay(1)));
+            if (Boolean.TRUE.equals(created)) {
+                createdCounter.increment();
+                log.info("Created appointment partition for {}", month);
+            }
+        }
+    }
+
+    /**
+     * Archive every active monthly partition that ends before {@code horizon} starts.
+     */
+    private void archiveBefore(YearMonth horizon) {
+        List<String> partitions = jdbcTemplate.queryForList(ACTIVE_PARTITIONS_SQL, String.class);
+        for (String partition : partitions) {
+            YearMonth month = YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_MONTH);
+            if (!month.isBefore(horizon)) {
+                // Names sort chronologically, so the rest are newer
+                return;
+            }
+            Boolean archived = jdbcTemplate.queryForObject("SELECT archive_appointment_partition(?, CAST(? AS text))",
+                    Boolean.class, Date.valueOf(month.atDay(1)), archiveTablespace);
+            if (Boolean.TRUE.equals(archived)) {
+                archivedCounter.increment();
+                log.info("Archived appointment partition {}", partition);
+            }
+        }
+    }
+}
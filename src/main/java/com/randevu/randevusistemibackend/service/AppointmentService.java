@@ -1,25 +1,59 @@
 package com.randevu.randevusistemibackend.service;
 
+import com.randevu.randevusistemibackend.dto.AppointmentPageResponse;
 import com.randevu.randevusistemibackend.dto.AppointmentRequest;
 import com.randevu.randevusistemibackend.dto.AppointmentResponse;
+import com.randevu.randevusistemibackend.dto.AppointmentRow;
+import com.randevu.randevusistemibackend.dto.AppointmentSeriesRequest;
+import com.randevu.randevusistemibackend.dto.BulkAppointmentRequest;
+import com.randevu.randevusistemibackend.dto.BulkAppointmentResponse;
+import com.randevu.randevusistemibackend.dto.SlotHoldConfirmRequest;
+import com.randevu.randevusistemibackend.dto.SlotHoldRequest;
+import com.randevu.randevusistemibackend.dto.SlotHoldResponse;
 import com.randevu.randevusistemibackend.exception.BadRequestException;
+import com.randevu.randevusistemibackend.exception.ConflictException;
 import com.randevu.randevusistemibackend.exception.ResourceNotFoundException;
 import com.randevu.randevusistemibackend.model.Appointment;
+import com.randevu.randevusistemibackend.model.GroupSlot;
 import com.randevu.randevusistemibackend.model.Provider;
 import com.randevu.randevusistemibackend.model.User;
 import com.randevu.randevusistemibackend.repository.AppointmentRepository;
+import com.randevu.randevusistemibackend.repository.GroupSlotRepository;
 import com.randevu.randevusistemibackend.repository.UserRepository;
+import com.randevu.randevusistemibackend.util.KeysetCursor;
+import com.randevu.randevusistemibackend.util.RecurrenceRule;
+import com.randevu.randevusistemibackend.util.RetryPolicy;
+import com.randevu.randevusistemibackend.util.TransactionCallbacks;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,61 +61,302 @@ import java.util.stream.Collectors;
 @Slf4j
 public class AppointmentService {
 
+    // Postgres SQLSTATE for exclusion_violation
+    private static final String EXCLUSION_VIOLATION_SQL_STATE = "23P01";
+
     private final AppointmentRepository appointmentRepository;
     private final UserRepository userRepository;
     private final EmailService emailService;
+    private final AppointmentIntervalIndex intervalIndex;
+    private final SlotGridCache slotGridCache;
+    private final BookingCoordinator bookingCoordinator;
+    private final SlotHoldRegistry slotHoldRegistry;
+    private final WaitlistService waitlistService;
+    private final GroupSlotRepository groupSlotRepository;
+    private final ProviderStatsService providerStatsService;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    
+    @Value("${app.booking.exclusion-constraint.enabled:true}")
+    private boolean exclusionConstraintEnabled;
+    
+    @Value("${app.booking.transition.max-attempts:3}")
+    private int transitionMaxAttempts;
+    
+    @Value("${app.booking.transition.backoff-ms:20}")
+    private long transitionBackoffMillis;
+    
+    @Value("${app.pagination.default-size:20}")
+    private int defaultPageSize;
+    
+    @Value("${app.pagination.max-size:100}")
+    private int maxPageSize;
     
     /**
-     * Create a new appointment based on the requested information
+     * Create a new appointment based on the requested information.
+     * Runs in its own transaction under the provider's booking lock, so concurrent
+     * requests for the same provider cannot both pass the overlap check.
      */
-    @Transactional
     public AppointmentResponse createAppointment(AppointmentRequest request, User currentUser) {
         log.debug("Creating appointment for user {} with provider {}", 
                  currentUser.getUsername(), request.getProviderId());
         
-        // Find the provider
-        Provider provider = userRepository.findById(request.getProviderId())
-                .filter(user -> user instanceof Provider)
-                .map(user -> (Provider) user)
-                .orElseThrow(() -> new ResourceNotFoundException("Provider", "id", request.getProviderId()));
-        
-        // Validate that the provider is available
-        if (!provider.isAvailable()) {
-            throw new BadRequestException("This provider is not currently accepting appointments", 
-                                        "PROVIDER_UNAVAILABLE");
+        // A seat in an existing group session is a single conditional write and needs no provider lock
+        if (request.getServiceName() != null) {
+            AppointmentResponse seat = transactionTemplate.execute(status -> groupSlotRepository
+                    .findSession(request.getProviderId(), request.getServiceName(), request.getStartTime())
+                    .map(slot -> bookGroupSeat(slot, request.getNotes(), currentUser))
+                    .orElse(null));
+            if (seat != null) {
+                return seat;
+            }
         }
         
+        return bookingCoordinator.withProviderLock(request.getProviderId(),
+                () -> bookAppointment(request, currentUser));
+    }
+    
+    private AppointmentResponse bookAppointment(AppointmentRequest request, User currentUser) {
+        Provider provider = findBookableProvider(request.getProviderId());
+        
         // Determine appointment duration (use provided duration or provider's recommended duration)
-        Integer durationMinutes = request.getDurationMinutes();
-        if (durationMinutes == null || durationMinutes <= 0) {
-            durationMinutes = provider.getAverageAppointmentDurationMinutes();
-            if (durationMinutes == null || durationMinutes <= 0) {
-                durationMinutes = 30; // Default fallback if no duration is specified anywhere
-            }
-        }
+        int durationMinutes = AvailabilityService.resolveDuration(provider, request.getDurationMinutes());
         
         // Calculate end time based on start time and duration
         LocalDateTime startTime = request.getStartTime();
         LocalDateTime endTime = startTime.plusMinutes(durationMinutes);
         
-        // Check for overlapping appointments
-        if (appointmentRepository.hasOverlappingAppointments(provider, startTime, endTime)) {
-            throw new BadRequestException("The requested time overlaps with an existing appointment", 
+        // Check for overlapping appointments. With the exclusion constraint the database rejects
+        // overlaps on insert, so only the in-memory index is consulted up front. The constraint
+        // only holds within one monthly partition and the index may miss other nodes' bookings,
+        // so bookings next to a month boundary are checked against the database under the lock.
+        boolean overlaps;
+        if (nearPartitionBoundary(startTime, endTime)) {
+            overlaps = appointmentRepository.hasOverlappingAppointments(provider, startTime, endTime);
+        } else if (exclusionConstraintEnabled) {
+            overlaps = intervalIndex.isKnownOverlap(provider.getId(), startTime, endTime);
+        } else {
+            overlaps = intervalIndex.hasOverlappingAppointments(provider, startTime, endTime);
+        }
+        if (overlaps || slotHoldRegistry.isHeldByOthers(provider.getId(), startTime, endTime, currentUser.getId())) {
+            throw overlapException();
+        }
+        
+        // First booking of a group service opens the session; later ones only claim seats
+        int capacity = provider.getCapacityFor(request.getServiceName());
+        if (capacity > 1) {
+            GroupSlot slot = groupSlotRepository.saveAndFlush(
+                    new GroupSlot(null, provider, request.getServiceName(), startTime, endTime, capacity, 0));
+            log.info("Opened group session {} of provider {} with {} seats", slot.getId(), provider.getId(), capacity);
+            return bookGroupSeat(slot, request.getNotes(), currentUser);
+        }
+        
+        return persistAppointment(newAppointment(currentUser, provider, startTime, endTime, 
+                                                 request.getServiceName(), request.getNotes()));
+    }
+    
+    /**
+     * Take a seat in a group session with one conditional UPDATE on the session row.
+     */
+    private AppointmentResponse bookGroupSeat(GroupSlot slot, String notes, User currentUser) {
+        if (!slot.getProvider().isAvailable()) {
+            throw new BadRequestException("This provider is not currently accepting appointments", 
+                                        "PROVIDER_UNAVAILABLE");
+        }
+        if (appointmentRepository.hasSeatInGroupSlot(slot.getId(), currentUser.getId())) {
+            throw new BadRequestException("You already have a seat in this session", "GROUP_SEAT_TAKEN");
+        }
+        
+        if (groupSlotRepository.claimSeat(slot.getId()) == 0) {
+            throw groupFullException();
+        }
+        
+        Appointment appointment = newAppointment(currentUser, slot.getProvider(), slot.getStartTime(), 
+                                                 slot.getEndTime(), slot.getServiceName(), notes);
+        appointment.setGroupSlotId(slot.getId());
+        return persistAppointment(appointment);
+    }
+    
+    private static BadRequestException groupFullException() {
+        return new BadRequestException("This group session is fully booked", "GROUP_SLOT_FULL");
+    }
+    
+    /**
+     * Book a recurring series of appointments in one transaction under the provider's booking lock.
+     * All occurrences are validated against a single range query and inserted together;
+     * each party receives one summary email instead of one per appointment.
+     */
+    public List<AppointmentResponse> createAppointmentSeries(AppointmentSeriesRequest request, User currentUser) {
+        log.debug("Creating {} appointment series of {} for user {} with provider {}", request.getFrequency(),
+                 request.getOccurrences(), currentUser.getUsername(), request.getProviderId());
+        
+        return bookingCoordinator.withProviderLock(request.getProviderId(),
+                () -> bookAppointmentSeries(request, currentUser));
+    }
+    
+    private List<AppointmentResponse> bookAppointmentSeries(AppointmentSeriesRequest request, User currentUser) {
+        Provider provider = findBookableProvider(request.getProviderId());
+        int durationMinutes = AvailabilityService.resolveDuration(provider, request.getDurationMinutes());
+        int interval = request.getInterval() != null ? request.getInterval() : 1;
+        RecurrenceRule rule = new RecurrenceRule(request.getFirstStartTime(), request.getFrequency().getUnit(),
+                                                 interval, request.getOccurrences());
+        
+        // One query covers every occurrence; both lists are sorted so they are merged in one pass
+        List<Appointment> existing = appointmentRepository.findActiveByProviderIdBetween(
+                provider.getId(), rule.first(), rule.last().plusMinutes(durationMinutes));
+        Iterator<Appointment> existingIterator = existing.iterator();
+        Appointment pending = existingIterator.hasNext() ? existingIterator.next() : null;
+        LocalDateTime busyUntil = LocalDateTime.MIN;
+        
+        List<Appointment> appointments = new ArrayList<>(request.getOccurrences());
+        List<LocalDateTime> conflicts = new ArrayList<>();
+        for (LocalDateTime startTime : (Iterable<LocalDateTime>) rule.occurrences()::iterator) {
+            LocalDateTime endTime = startTime.plusMinutes(durationMinutes);
+            // Same rule as hasOverlappingAppointments: existing.start < end && existing.end > start
+            while (pending != null && pending.getStartTime().isBefore(endTime)) {
+                if (pending.getEndTime().isAfter(busyUntil)) {
+                    busyUntil = pending.getEndTime();
+                }
+                pending = existingIterator.hasNext() ? existingIterator.next() : null;
+            }
+            if (busyUntil.isAfter(startTime)
+                    || slotHoldRegistry.isHeldByOthers(provider.getId(), startTime, endTime, currentUser.getId())) {
+                conflicts.add(startTime);
+                continue;
+            }
+            appointments.add(newAppointment(currentUser, provider, startTime, endTime, 
+                                            request.getServiceName(), request.getNotes()));
+        }
+        
+        if (!conflicts.isEmpty()) {
+            throw new BadRequestException("The following occurrences overlap with existing appointments: " + conflicts, 
                                         "APPOINTMENT_OVERLAP");
         }
         
-        // Create and save the appointment
-        Appointment appointment = new Appointment();
-        appointment.setUser(currentUser);
-        appointment.setProvider(provider);
-        appointment.setStartTime(startTime);
-        appointment.setEndTime(endTime);
-        appointment.setServiceName(request.getServiceName());
-        appointment.setNotes(request.getNotes());
-        appointment.setStatus(Appointment.AppointmentStatus.PENDING);
+        List<Appointment> savedAppointments;
+        try {
+            savedAppointments = appointmentRepository.saveAll(appointments);
+            appointmentRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (isExclusionViolation(e)) {
+                throw overlapException();
+            }
+            throw e;
+        }
+        providerStatsService.recordCreated(savedAppointments);
+        savedAppointments.forEach(this::onAppointmentChanged);
+        log.info("Created series of {} appointments for user {}", savedAppointments.size(), currentUser.getUsername());
+        
+        emailService.sendNewSeriesNotificationToProvider(savedAppointments);
+        emailService.sendSeriesRequestToUser(savedAppointments);
+        
+        return savedAppointments.stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Hold a provider slot for the current user for a few minutes.
+     * The slot is checked against appointments and other holds once, under the provider's booking lock.
+     */
+    public SlotHoldResponse holdSlot(SlotHoldRequest request, User currentUser) {
+        log.debug("Holding slot for user {} with provider {}", currentUser.getUsername(), request.getProviderId());
         
-        Appointment savedAppointment = appointmentRepository.save(appointment);
-        log.info("Created appointment with ID {} for user {}", savedAppointment.getId(), currentUser.getUsername());
+        return bookingCoordinator.withProviderLock(request.getProviderId(), () -> {
+            Provider provider = findBookableProvider(request.getProviderId());
+            int durationMinutes = AvailabilityService.resolveDuration(provider, request.getDurationMinutes());
+            LocalDateTime startTime = request.getStartTime();
+            LocalDateTime endTime = startTime.plusMinutes(durationMinutes);
+            
+            if (intervalIndex.hasOverlappingAppointments(provider, startTime, endTime)) {
+                throw overlapException();
+            }
+            SlotHoldRegistry.SlotHold hold = slotHoldRegistry
+                    .tryHold(provider.getId(), currentUser.getId(), startTime, endTime)
+                    .orElseThrow(() -> new BadRequestException("The requested time is held by another user", 
+                                                             "SLOT_HELD"));
+            
+            log.info("Placed hold {} for user {}", hold.id(), currentUser.getUsername());
+            return new SlotHoldResponse(hold.id(), hold.providerId(), hold.startTime(), hold.endTime(), 
+                                        hold.expiresAt());
+        });
+    }
+    
+    /**
+     * Turn a hold of the current user into a pending appointment.
+     * The hold already guarantees the slot, so the overlap query is not repeated.
+     */
+    public AppointmentResponse confirmHold(UUID holdId, SlotHoldConfirmRequest request, User currentUser) {
+        SlotHoldRegistry.SlotHold hold = findOwnHold(holdId, currentUser);
+        
+        return bookingCoordinator.withProviderLock(hold.providerId(), () -> {
+            if (slotHoldRegistry.find(holdId).isEmpty()) {
+                throw new ResourceNotFoundException("Hold", "id", holdId);
+            }
+            Provider provider = findBookableProvider(hold.providerId());
+            AppointmentResponse response = persistAppointment(newAppointment(currentUser, provider, 
+                    hold.startTime(), hold.endTime(), request.getServiceName(), request.getNotes()));
+            
+            // Keep the slot held until the appointment is committed
+            TransactionCallbacks.afterCommit(() -> slotHoldRegistry.release(hold));
+            return response;
+        });
+    }
+    
+    /**
+     * Release a hold of the current user before it expires
+     */
+    public void releaseHold(UUID holdId, User currentUser) {
+        SlotHoldRegistry.SlotHold hold = findOwnHold(holdId, currentUser);
+        slotHoldRegistry.release(hold);
+        log.info("Released hold {} for user {}", holdId, currentUser.getUsername());
+    }
+    
+    private SlotHoldRegistry.SlotHold findOwnHold(UUID holdId, User currentUser) {
+        SlotHoldRegistry.SlotHold hold = slotHoldRegistry.find(holdId)
+                .orElseThrow(() -> new ResourceNotFoundException("Hold", "id", holdId));
+        if (!hold.userId().equals(currentUser.getId())) {
+            throw new BadRequestException("You do not have permission to use this hold", "PERMISSION_DENIED");
+        }
+        return hold;
+    }
+    
+    /**
+     * Find a provider that currently accepts appointments
+     */
+    private Provider findBookableProvider(Long providerId) {
+        Provider provider = userRepository.findById(providerId)
+                .filter(user -> user instanceof Provider)
+                .map(user -> (Provider) user)
+                .orElseThrow(() -> new ResourceNotFoundException("Provider", "id", providerId));
+        
+        // Validate that the provider is available
+        if (!provider.isAvailable()) {
+            throw new BadRequestException("This provider is not currently accepting appointments", 
+                                        "PROVIDER_UNAVAILABLE");
+        }
+        return provider;
+    }
+    
+    /**
+     * Insert a pending appointment and notify both parties.
+     * An exclusion constraint violation is reported as an overlap.
+     */
+    private AppointmentResponse persistAppointment(Appointment appointment) {
+        Appointment savedAppointment;
+        try {
+            savedAppointment = appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException e) {
+            if (isExclusionViolation(e)) {
+                throw overlapException();
+            }
+            throw e;
+        }
+        providerStatsService.recordCreated(List.of(savedAppointment));
+        onAppointmentChanged(savedAppointment);
+        log.info("Created appointment with ID {} for user {}", 
+                savedAppointment.getId(), savedAppointment.getUser().getUsername());
 
         // Send email notification to the provider
         emailService.sendNewAppointmentNotificationToProvider(savedAppointment);
@@ -91,14 +366,58 @@ public class AppointmentService {
         return convertToResponse(savedAppointment);
     }
     
+    private static Appointment newAppointment(User user, Provider provider, 
+                                              LocalDateTime startTime, LocalDateTime endTime,
+                                              String serviceName, String notes) {
+        Appointment appointment = new Appointment();
+        appointment.setUser(user);
+        appointment.setProvider(provider);
+        appointment.setStartTime(startTime);
+        appointment.setEndTime(endTime);
+        appointment.setServiceName(serviceName);
+        appointment.setNotes(notes);
+        appointment.setStatus(Appointment.AppointmentStatus.PENDING);
+        return appointment;
+    }
+    
+    /**
+     * Whether an appointment within a day of the range could sit in another monthly partition
+     */
+    private static boolean nearPartitionBoundary(LocalDateTime startTime, LocalDateTime endTime) {
+        return !YearMonth.from(startTime.minusDays(1)).equals(YearMonth.from(endTime.plusDays(1)));
+    }
+    
+    private static BadRequestException overlapException() {
+        return new BadRequestException("The requested time overlaps with an existing appointment", 
+                                     "APPOINTMENT_OVERLAP");
+    }
+    
     /**
-     * Cancel an appointment
+     * Whether the failure was raised by the appointments_no_overlap exclusion constraint
+     */
+    private static boolean isExclusionViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException
+                    && EXCLUSION_VIOLATION_SQL_STATE.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Cancel an appointment.
+     * The status change is a conditional update on the version read, retried on conflict,
+     * so a concurrent confirm is either seen and re-validated or loses its own update.
      */
-    @Transactional
     public AppointmentResponse cancelAppointment(Long appointmentId, User currentUser) {
         log.debug("Cancelling appointment {} for user {}", appointmentId, currentUser.getUsername());
         
-        Appointment appointment = appointmentRepository.findById(appointmentId)
+        return withTransitionRetry(() -> doCancelAppointment(appointmentId, currentUser));
+    }
+    
+    private AppointmentResponse doCancelAppointment(Long appointmentId, User currentUser) {
+        Appointment appointment = appointmentRepository.findWithParticipantsById(appointmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Appointment", "id", appointmentId));
         
         // Verify the user owns this appointment or is the provider
@@ -114,8 +433,15 @@ public class AppointmentService {
                                         "APPOINTMENT_COMPLETED");
         }
         
-        appointment.setStatus(Appointment.AppointmentStatus.CANCELLED);
-        Appointment updatedAppointment = appointmentRepository.save(appointment);
+        // A second cancellation would release the group seat and the slot once more
+        if (appointment.getStatus() == Appointment.AppointmentStatus.CANCELLED) {
+            throw new BadRequestException("Appointment is already cancelled", 
+                                        "APPOINTMENT_CANCELLED");
+        }
+        
+        Appointment updatedAppointment = transitionStatus(appointment, Appointment.AppointmentStatus.CANCELLED);
+        onAppointmentChanged(updatedAppointment);
+        onAppointmentCancelled(updatedAppointment);
         
         log.info("Cancelled appointment with ID {}", appointmentId);
         return convertToResponse(updatedAppointment);
@@ -124,11 +450,14 @@ public class AppointmentService {
     /**
      * Confirm an appointment (provider only)
      */
-    @Transactional
     public AppointmentResponse confirmAppointment(Long appointmentId, Provider provider) {
         log.debug("Confirming appointment {} by provider {}", appointmentId, provider.getUsername());
         
-        Appointment appointment = appointmentRepository.findById(appointmentId)
+        return withTransitionRetry(() -> doConfirmAppointment(appointmentId, provider));
+    }
+    
+    private AppointmentResponse doConfirmAppointment(Long appointmentId, Provider provider) {
+        Appointment appointment = appointmentRepository.findWithParticipantsById(appointmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Appointment", "id", appointmentId));
         
         // Verify the provider owns this appointment
@@ -143,57 +472,242 @@ public class AppointmentService {
                                         "APPOINTMENT_CANCELLED");
         }
         
-        appointment.setStatus(Appointment.AppointmentStatus.CONFIRMED);
-        Appointment updatedAppointment = appointmentRepository.save(appointment);
+        Appointment updatedAppointment = transitionStatus(appointment, Appointment.AppointmentStatus.CONFIRMED);
+        onAppointmentChanged(updatedAppointment);
         
-        // Send email confirmation to the user with ICS calendar attachment
-        emailService.sendAppointmentConfirmedToUser(updatedAppointment);
+        // Send email confirmation to the user with ICS calendar attachment once the change is committed
+        TransactionCallbacks.afterCommit(() -> emailService.sendAppointmentConfirmedToUser(updatedAppointment));
         
         log.info("Confirmed appointment with ID {}", appointmentId);
         return convertToResponse(updatedAppointment);
     }
     
     /**
-     * Get appointments for the current user
+     * Confirm or cancel many appointments of a provider at once.
+     * Ownership is checked with a single query, every valid change is sent as one JDBC batch
+     * of conditional UPDATEs, and confirmation emails go out in one task. Appointments that
+     * are missing, not owned, in the wrong state or changed concurrently are reported per item.
      */
-    public List<AppointmentResponse> getUserAppointments(User user) {
-        log.debug("Getting appointments for user {}", user.getUsername());
+    public BulkAppointmentResponse bulkUpdateStatus(BulkAppointmentRequest request, Provider provider) {
+        log.debug("Bulk {} of {} appointments by provider {}", 
+                 request.getAction(), request.getAppointmentIds().size(), provider.getUsername());
         
-        List<Appointment> appointments = appointmentRepository.findByUserOrderByStartTimeDesc(user);
-        return appointments.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(request.getAppointmentIds()));
+        Appointment.AppointmentStatus newStatus = request.getAction() == BulkAppointmentRequest.Action.CONFIRM
+                ? Appointment.AppointmentStatus.CONFIRMED
+                : Appointment.AppointmentStatus.CANCELLED;
+        
+        List<Appointment> changed = new ArrayList<>();
+        Map<Long, BulkAppointmentResponse.ItemResult> results = transactionTemplate.execute(status -> {
+            Map<Long, Appointment> owned = appointmentRepository.findByIdsAndProviderId(ids, provider.getId()).stream()
+                    .collect(Collectors.toMap(Appointment::getId, Function.identity()));
+            // Later changes are applied to detached copies, never flushed by Hibernate
+            entityManager.clear();
+            
+            Map<Long, BulkAppointmentResponse.ItemResult> itemResults = new HashMap<>();
+            List<Appointment> candidates = new ArrayList<>();
+            for (Long id : ids) {
+                Appointment appointment = owned.get(id);
+                if (appointment == null) {
+                    itemResults.put(id, BulkAppointmentResponse.ItemResult.failure(id, "APPOINTMENT_NOT_FOUND",
+                            "Appointment not found"));
+                } else if (newStatus == Appointment.AppointmentStatus.CONFIRMED
+                        && appointment.getStatus() == Appointment.AppointmentStatus.CANCELLED) {
+                    itemResults.put(id, BulkAppointmentResponse.ItemResult.failure(id, "APPOINTMENT_CANCELLED",
+                            "Cannot confirm a cancelled appointment"));
+                } else if (newStatus == Appointment.AppointmentStatus.CANCELLED
+                        && appointment.getStatus() == Appointment.AppointmentStatus.COMPLETED) {
+                    itemResults.put(id, BulkAppointmentResponse.ItemResult.failure(id, "APPOINTMENT_COMPLETED",
+                            "Cannot cancel a completed appointment"));
+                } else if (newStatus == Appointment.AppointmentStatus.CANCELLED
+                        && appointment.getStatus() == Appointment.AppointmentStatus.CANCELLED) {
+                    itemResults.put(id, BulkAppointmentResponse.ItemResult.failure(id, "APPOINTMENT_CANCELLED",
+                            "Appointment is already cancelled"));
+                } else {
+                    candidates.add(appointment);
+                }
+            }
+            
+            LocalDateTime now = LocalDateTime.now();
+            int[] counts = candidates.isEmpty() ? new int[0] : jdbcTemplate.batchUpdate(
+                    "UPDATE appointments SET status = ?, version = version + 1, updated_at = ? " +
+                    "WHERE id = ? AND status = ? AND version = ?",
+                    candidates, candidates.size(),
+                    (ps, appointment) -> {
+                        ps.setString(1, newStatus.name());
+                        ps.setObject(2, now);
+                        ps.setLong(3, appointment.getId());
+                        ps.setString(4, appointment.getStatus().name());
+                        ps.setLong(5, appointment.getVersion());
+                    })[0];
+            
+            Map<Long, Appointment.AppointmentStatus> previousStatuses = new HashMap<>();
+            for (int i = 0; i < candidates.size(); i++) {
+                Appointment appointment = candidates.get(i);
+                if (counts[i] == 0) {
+                    itemResults.put(appointment.getId(), BulkAppointmentResponse.ItemResult.failure(
+                            appointment.getId(), "APPOINTMENT_MODIFIED", "Appointment was modified concurrently"));
+                    continue;
+                }
+                previousStatuses.put(appointment.getId(), appointment.getStatus());
+                appointment.setStatus(newStatus);
+                appointment.setVersion(appointment.getVersion() + 1);
+                appointment.setUpdatedAt(now);
+                onAppointmentChanged(appointment);
+                changed.add(appointment);
+                itemResults.put(appointment.getId(), BulkAppointmentResponse.ItemResult.success(
+                        convertToResponse(appointment)));
+            }
+            
+            providerStatsService.recordTransitions(changed, previousStatuses, newStatus);
+            if (newStatus == Appointment.AppointmentStatus.CANCELLED) {
+                changed.forEach(this::onAppointmentCancelled);
+            }
+            return itemResults;
+        });
+        
+        if (newStatus == Appointment.AppointmentStatus.CONFIRMED && !changed.isEmpty()) {
+            emailService.sendAppointmentsConfirmedToUsers(changed);
+        }
+        
+        List<BulkAppointmentResponse.ItemResult> ordered = ids.stream().map(results::get).toList();
+        log.info("Bulk {} by provider {}: {} of {} appointments changed", 
+                request.getAction(), provider.getUsername(), changed.size(), ids.size());
+        return new BulkAppointmentResponse(changed.size(), ids.size() - changed.size(), ordered);
+    }
+    
+    /**
+     * Apply a status change with a conditional UPDATE on the status and version that were read.
+     * The persistence context is cleared by the update, so the returned appointment is a
+     * detached copy reflecting the new state.
+     */
+    private Appointment transitionStatus(Appointment appointment, Appointment.AppointmentStatus newStatus) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = appointmentRepository.updateStatusIfUnchanged(
+                appointment.getId(), appointment.getStatus(), appointment.getVersion(), newStatus, now);
+        if (updated == 0) {
+            throw new OptimisticLockingFailureException(
+                    "Appointment " + appointment.getId() + " was modified concurrently");
+        }
+        providerStatsService.recordTransition(appointment, appointment.getStatus(), newStatus);
+        appointment.setStatus(newStatus);
+        appointment.setVersion(appointment.getVersion() + 1);
+        appointment.setUpdatedAt(now);
+        return appointment;
     }
     
     /**
-     * Get appointments for a provider
+     * Run a status transition in its own transaction, re-reading and re-validating the
+     * appointment whenever a concurrent change made the conditional update miss.
      */
-    public List<AppointmentResponse> getProviderAppointments(Provider provider) {
-        log.debug("Getting appointments for provider {}", provider.getUsername());
+    private AppointmentResponse withTransitionRetry(Supplier<AppointmentResponse> transition) {
+        RetryPolicy retryPolicy = new RetryPolicy(transitionMaxAttempts, transitionBackoffMillis,
+                e -> e instanceof OptimisticLockingFailureException);
+        try {
+            return retryPolicy.execute(() -> transactionTemplate.execute(status -> transition.get()));
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Giving up status transition after {} attempts: {}", transitionMaxAttempts, e.getMessage());
+            throw new ConflictException("Appointment was modified concurrently, please retry", 
+                                      "APPOINTMENT_MODIFIED");
+        }
+    }
+    
+    /**
+     * Get one page of appointments for the current user, newest first
+     */
+    @Transactional(readOnly = true)
+    public AppointmentPageResponse getUserAppointments(User user, String cursor, Integer size) {
+        log.debug("Getting appointments for user {} after cursor {}", user.getUsername(), cursor);
         
-        List<Appointment> appointments = appointmentRepository.findByProviderOrderByStartTimeDesc(provider);
-        return appointments.stream()
-                .map(this::convertToResponse)
+        return loadPage(cursor, size,
+                page -> appointmentRepository.findUserPage(user.getId(), page),
+                (after, page) -> appointmentRepository.findUserPageAfter(user.getId(), after.startTime(), after.id(), page));
+    }
+    
+    /**
+     * Get one page of appointments for a provider, newest first
+     */
+    @Transactional(readOnly = true)
+    public AppointmentPageResponse getProviderAppointments(Provider provider, String cursor, Integer size) {
+        log.debug("Getting appointments for provider {} after cursor {}", provider.getUsername(), cursor);
+        
+        return loadPage(cursor, size,
+                page -> appointmentRepository.findProviderPage(provider.getId(), page),
+                (after, page) -> appointmentRepository.findProviderPageAfter(provider.getId(), after.startTime(), after.id(), page));
+    }
+    
+    /**
+     * Fetch one row more than the page size to learn whether another page follows,
+     * and hand out the last row's (startTime, id) as the cursor for it.
+     */
+    private AppointmentPageResponse loadPage(String cursor, Integer size,
+                                             Function<Pageable, List<AppointmentRow>> firstPage,
+                                             BiFunction<KeysetCursor, Pageable, List<AppointmentRow>> nextPage) {
+        int pageSize = size == null ? defaultPageSize : size;
+        if (pageSize <= 0 || pageSize > maxPageSize) {
+            throw new BadRequestException("Page size must be between 1 and " + maxPageSize, "INVALID_PAGE_SIZE");
+        }
+        
+        Pageable page = PageRequest.of(0, pageSize + 1);
+        List<AppointmentRow> rows = cursor == null || cursor.isBlank()
+                ? firstPage.apply(page)
+                : nextPage.apply(KeysetCursor.decode(cursor), page);
+        
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            AppointmentRow last = rows.get(rows.size() - 1);
+            nextCursor = new KeysetCursor(last.startTime(), last.id()).encode();
+        }
+        
+        List<AppointmentResponse> items = rows.stream()
+                .map(AppointmentRow::toResponse)
                 .collect(Collectors.toList());
+        return new AppointmentPageResponse(items, nextCursor, hasMore);
     }
     
     /**
      * Get provider appointments for a specific date range
      */
+    @Transactional(readOnly = true)
     public List<AppointmentResponse> getProviderAppointmentsByDateRange(
             Provider provider, LocalDate startDate, LocalDate endDate) {
         
         LocalDateTime startDateTime = startDate.atStartOfDay();
         LocalDateTime endDateTime = endDate.atTime(LocalTime.MAX);
         
-        List<Appointment> appointments = appointmentRepository.findByProviderAndStartTimeBetween(
-                provider, startDateTime, endDateTime);
-                
-        return appointments.stream()
-                .map(this::convertToResponse)
+        return appointmentRepository.findProviderRowsBetween(provider.getId(), startDateTime, endDateTime).stream()
+                .map(AppointmentRow::toResponse)
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Hand a cancelled seat back to its group session, or offer a freed slot to the
+     * waitlist once the cancellation is visible to other transactions.
+     */
+    private void onAppointmentCancelled(Appointment appointment) {
+        Long groupSlotId = appointment.getGroupSlotId();
+        if (groupSlotId != null) {
+            groupSlotRepository.releaseSeat(groupSlotId);
+            return;
+        }
+        Long providerId = appointment.getProvider().getId();
+        LocalDateTime freedStart = appointment.getStartTime();
+        LocalDateTime freedEnd = appointment.getEndTime();
+        TransactionCallbacks.afterCommit(() -> waitlistService.onSlotFreed(providerId, freedStart, freedEnd));
+    }
+    
+    /**
+     * Propagate a saved appointment to the in-memory availability structures after commit
+     */
+    private void onAppointmentChanged(Appointment appointment) {
+        intervalIndex.onAppointmentSaved(appointment);
+        slotGridCache.onAppointmentSaved(appointment);
+    }
+    
     /**
      * Convert Appointment entity to AppointmentResponse DTO
      */
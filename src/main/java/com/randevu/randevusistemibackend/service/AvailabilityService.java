@@ -0,0 +1,237 @@
+package com.randevu.randevusistemibackend.service;
+
+import com.randevu.randevusistemibackend.dto.EarliestSlotResponse;
+import com.randevu.randevusistemibackend.dto.ProviderDTO;
+import com.randevu.randevusistemibackend.dto.ProviderFilterRequest;
+import com.randevu.randevusistemibackend.dto.TimeSlotResponse;
+import com.randevu.randevusistemibackend.exception.BadRequestException;
+import com.randevu.randevusistemibackend.model.Appointment;
+import com.randevu.randevusistemibackend.model.Provider;
+import com.randevu.randevusistemibackend.repository.AppointmentRepository;
+import com.randevu.randevusistemibackend.repository.ProviderRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Service that computes bookable slots of a provider from its business hours
+ * and existing appointments.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AvailabilityService {
+
+    private final AppointmentRepository appointmentRepository;
+    private final SlotGridCache slotGridCache;
+    private final SlotHoldRegistry slotHoldRegistry;
+    private final ProviderService providerService;
+    private final ProviderRepository providerRepository;
+
+    @Value("${app.booking.slots.max-days:31}")
+    private int maxDays;
+
+    @Value("${app.booking.earliest.max-candidates:500}")
+    private int maxCandidates;
+
+    @Value("${app.booking.earliest.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.booking.earliest.max-results:50}")
+    private int maxEarliestResults;
+
+    /**
+     * Find the free slots of a provider between two dates (inclusive).
+     * Ranges within the next few days are answered from {@link SlotGridCache}; otherwise
+     * the provider's appointments for the whole range are loaded with a single query.
+     * Slots covered by an active hold are left out.
+     */
+    public List<TimeSlotResponse> findAvailableSlots(Provider provider, LocalDate from, LocalDate to,
+                                                     Integer durationMinutes) {
+        if (to.isBefore(from)) {
+            throw new BadRequestException("End date must not be before start date", "INVALID_DATE_RANGE");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new BadRequestException("Date range must not exceed " + maxDays + " days", "INVALID_DATE_RANGE");
+        }
+        log.debug("Computing slots for provider {} from {} to {}", provider.getId(), from, to);
+
+        int duration = resolveDuration(provider, durationMinutes);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<TimeSlotResponse> slots = slotGridCache.findAvailableSlots(provider, from, to, duration, now);
+        if (slots == null) {
+            LocalDateTime rangeStart = from.atStartOfDay();
+            LocalDateTime rangeEnd = to.atTime(LocalTime.MAX);
+
+            List<Appointment> appointments = appointmentRepository.findActiveByProviderIdBetween(
+                    provider.getId(), rangeStart, rangeEnd);
+            slots = computeSlots(provider, from, to, duration, appointments, now);
+        }
+
+        // Slots held by anyone are not offered until the hold is confirmed, released or expired
+        slots.removeIf(slot -> slotHoldRegistry.isHeldByOthers(
+                provider.getId(), slot.getStartTime(), slot.getEndTime(), null));
+        return slots;
+    }
+
+    /**
+     * Find the providers matching the filter that can see a client soonest.
+     * Candidate providers and their appointments are loaded in batches, each provider's
+     * first free slot is computed in parallel, and a bounded max-heap keeps the K earliest.
+     */
+    public List<EarliestSlotResponse> findEarliestSlots(ProviderFilterRequest filter, int limit,
+                                                        int horizonDays, Integer durationMinutes) {
+        if (limit <= 0 || limit > maxEarliestResults) {
+            throw new BadRequestException("Limit must be between 1 and " + maxEarliestResults, "INVALID_LIMIT");
+        }
+        if (horizonDays <= 0 || horizonDays > maxDays) {
+            throw new BadRequestException("Horizon must be between 1 and " + maxDays + " days", "INVALID_DATE_RANGE");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate from = now.toLocalDate();
+        LocalDate to = from.plusDays(horizonDays - 1L);
+
+        List<Long> candidateIds = providerService.findMatchingProviders(filter, maxCandidates).stream()
+                .filter(Provider::isAvailable)
+                .map(Provider::getId)
+                .toList();
+        log.debug("Searching earliest slots among {} providers until {}", candidateIds.size(), to);
+
+        // Max-heap on start time: the root is the latest of the K best, evicted when something earlier shows up
+        PriorityQueue<FirstSlot> best = new PriorityQueue<>(limit + 1,
+                Comparator.comparing((FirstSlot first) -> first.slot().getStartTime()).reversed());
+
+        for (int offset = 0; offset < candidateIds.size(); offset += batchSize) {
+            List<Long> batch = candidateIds.subList(offset, Math.min(offset + batchSize, candidateIds.size()));
+
+            // Two queries per batch. The parallel part only reads business hours, which are fetched
+            // with the providers, and appointment times; the persistence context stays on this thread.
+            List<Provider> providers = providerRepository.findWithBusinessHoursByIdIn(batch);
+            Map<Long, List<Appointment>> appointmentsByProvider = appointmentRepository
+                    .findActiveByProviderIdsBetween(batch, from.atStartOfDay(), to.atTime(LocalTime.MAX))
+                    .stream()
+                    .collect(Collectors.groupingBy(a -> a.getProvider().getId()));
+
+            List<FirstSlot> firstSlots = providers.parallelStream()
+                    .map(provider -> firstSlot(provider, from, to, durationMinutes, 
+                            appointmentsByProvider.getOrDefault(provider.getId(), List.of()), now))
+                    .filter(Objects::nonNull)
+                    .toList();
+
+            for (FirstSlot slot : firstSlots) {
+                best.offer(slot);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+
+        // Provider details may load lazy collections, so they are only built here, for the winners
+        return best.stream()
+                .sorted(Comparator.comparing(first -> first.slot().getStartTime()))
+                .map(first -> new EarliestSlotResponse(ProviderDTO.fromEntity(first.provider()),
+                        first.slot().getStartTime(), first.slot().getEndTime()))
+                .toList();
+    }
+
+    private record FirstSlot(Provider provider, TimeSlotResponse slot) {
+    }
+
+    private FirstSlot firstSlot(Provider provider, LocalDate from, LocalDate to, Integer durationMinutes,
+                                List<Appointment> sortedAppointments, LocalDateTime now) {
+        int duration = resolveDuration(provider, durationMinutes);
+        List<TimeSlotResponse> slots = computeSlots(provider, from, to, duration, sortedAppointments, now,
+                slot -> !slotHoldRegistry.isHeldByOthers(provider.getId(), slot.getStartTime(), slot.getEndTime(), null),
+                1);
+        return slots.isEmpty() ? null : new FirstSlot(provider, slots.get(0));
+    }
+
+    /**
+     * Determine the slot length: requested duration, else the provider's average, else 30 minutes.
+     */
+    static int resolveDuration(Provider provider, Integer durationMinutes) {
+        if (durationMinutes != null && durationMinutes > 0) {
+            return durationMinutes;
+        }
+        Integer average = provider.getAverageAppointmentDurationMinutes();
+        return average != null && average > 0 ? average : 30;
+    }
+
+    /**
+     * Walk the slot grid of every open day and the start-sorted appointments together.
+     * Appointments are consumed once as the grid advances, so the cost is linear in
+     * slots plus appointments. A slot conflicts with an appointment under the same rule
+     * as {@link AppointmentRepository#hasOverlappingAppointments}, so every slot returned
+     * here is accepted by {@link AppointmentService#createAppointment}.
+     */
+    static List<TimeSlotResponse> computeSlots(Provider provider, LocalDate from, LocalDate to, int duration,
+                                               List<Appointment> sortedAppointments, LocalDateTime notBefore) {
+        return computeSlots(provider, from, to, duration, sortedAppointments, notBefore, slot -> true, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Same walk as above, keeping only slots accepted by the filter and stopping after {@code limit} slots.
+     */
+    static List<TimeSlotResponse> computeSlots(Provider provider, LocalDate from, LocalDate to, int duration,
+                                               List<Appointment> sortedAppointments, LocalDateTime notBefore,
+                                               Predicate<TimeSlotResponse> filter, int limit) {
+        List<TimeSlotResponse> slots = new ArrayList<>();
+        int next = 0;
+        LocalDateTime busyUntil = LocalDateTime.MIN;
+
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            Provider.BusinessHours hours = provider.getBusinessHours().get(day.getDayOfWeek());
+            if (hours == null || hours.isClosed() || hours.getStartTime() == null || hours.getEndTime() == null
+                    || !hours.getEndTime().isAfter(hours.getStartTime())) {
+                continue;
+            }
+
+            LocalDateTime close = day.atTime(hours.getEndTime());
+            for (LocalDateTime slotStart = day.atTime(hours.getStartTime());
+                 !slotStart.plusMinutes(duration).isAfter(close);
+                 slotStart = slotStart.plusMinutes(duration)) {
+                LocalDateTime slotEnd = slotStart.plusMinutes(duration);
+
+                // Consume every appointment starting before this slot's end
+                while (next < sortedAppointments.size()
+                        && sortedAppointments.get(next).getStartTime().isBefore(slotEnd)) {
+                    LocalDateTime end = sortedAppointments.get(next).getEndTime();
+                    if (end.isAfter(busyUntil)) {
+                        busyUntil = end;
+                    }
+                    next++;
+                }
+
+                if (slotStart.isBefore(notBefore) || busyUntil.isAfter(slotStart)) {
+                    continue;
+                }
+                TimeSlotResponse slot = new TimeSlotResponse(slotStart, slotEnd);
+                if (filter.test(slot)) {
+                    slots.add(slot);
+                    if (slots.size() >= limit) {
+                        return slots;
+                    }
+                }
+            }
+        }
+        return slots;
+    }
+}
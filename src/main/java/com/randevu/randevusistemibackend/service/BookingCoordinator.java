@@ -0,0 +1,102 @@
+package com.randevu.randevusistemibackend.service;
+
+import com.randevu.randevusistemibackend.exception.ConflictException;
+import com.randevu.randevusistemibackend.util.StripedLock;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Serializes booking writes per provider so the overlap check and the insert
+ * cannot interleave with another booking for the same provider.
+ *
+ * Within one node a striped lock table keyed by provider id is held around the whole
+ * transaction, including commit. Across nodes a Postgres transaction-scoped advisory
+ * lock on the provider id is taken as the first statement of the transaction.
+ * The work always runs in a transaction of its own, even when the caller already has one.
+ * Bookings for providers on different stripes never wait for each other.
+ */
+@Component
+@Slf4j
+public class BookingCoordinator {
+
+    // Advisory lock namespace so booking locks cannot collide with other advisory lock users
+    private static final int ADVISORY_LOCK_NAMESPACE = 0x52414e44;
+
+    private final StripedLock locks;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean advisoryLockEnabled;
+    private final long lockTimeoutMillis;
+
+    public BookingCoordinator(PlatformTransactionManager transactionManager,
+                              JdbcTemplate jdbcTemplate,
+                              @Value("${app.booking.lock.stripes:1024}") int stripes,
+                              @Value("${app.booking.lock.advisory-enabled:true}") boolean advisoryLockEnabled,
+                              @Value("${app.booking.lock.timeout-ms:5000}") long lockTimeoutMillis) {
+        this.locks = new StripedLock(stripes);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Joining a caller's transaction would release the locks before that transaction commits
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.jdbcTemplate = jdbcTemplate;
+        this.advisoryLockEnabled = advisoryLockEnabled;
+        this.lockTimeoutMillis = lockTimeoutMillis;
+    }
+
+    /**
+     * Run the work in a new transaction while holding the booking lock of the provider.
+     * The lock is released only after the transaction has committed or rolled back.
+     */
+    public <T> T withProviderLock(Long providerId, Supplier<T> work) {
+        boolean acquired;
+        try {
+            acquired = locks.tryLock(providerId, lockTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Booking was interrupted, please retry", "BOOKING_BUSY");
+        }
+        if (!acquired) {
+            log.warn("Timed out waiting for booking lock of provider {}", providerId);
+            throw new ConflictException("Provider is busy with other bookings, please retry", "BOOKING_BUSY");
+        }
+
+        try {
+            return transactionTemplate.execute(status -> {
+                if (advisoryLockEnabled) {
+                    acquireAdvisoryLock(providerId);
+                }
+                return work.get();
+            });
+        } finally {
+            locks.unlock(providerId);
+        }
+    }
+
+    /**
+     * Wait for the cross-node advisory lock of the provider; Postgres releases it at transaction end.
+     * The wait is bounded by the same timeout as the striped lock, which stays in force as the
+     * lock_timeout of the rest of the booking transaction.
+     */
+    private void acquireAdvisoryLock(Long providerId) {
+        jdbcTemplate.queryForObject("SELECT set_config('lock_timeout', ?, true)", String.class,
+                lockTimeoutMillis + "ms");
+        try {
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, ?)",
+                    rs -> null,
+                    ADVISORY_LOCK_NAMESPACE, Long.hashCode(providerId));
+        } catch (PessimisticLockingFailureException e) {
+            log.warn("Timed out waiting for advisory booking lock of provider {}", providerId);
+            throw new ConflictException("Provider is busy with other bookings, please retry", "BOOKING_BUSY");
+        }
+    }
+}
@@ -37,7 +37,9 @@ import org.thymeleaf.context.Context;
 import java.io.ByteArrayOutputStream;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -138,46 +140,204 @@ public class EmailService {
     @Async
     public void sendAppointmentConfirmedToUser(Appointment appointment) {
         try {
-            User user = appointment.getUser();
-            Provider provider = appointment.getProvider();
+            mailSender.send(createAppointmentConfirmedMessage(appointment));
+            log.info("Appointment confirmation email sent to user {}", appointment.getUser().getEmail());
+        } catch (Exception e) {
+            log.error("Error sending appointment confirmation to user: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Asynchronously send confirmation emails for many appointments in one task,
+     * delivering all messages over a single mail server connection
+     */
+    @Async
+    public void sendAppointmentsConfirmedToUsers(List<Appointment> appointments) {
+        List<MimeMessage> messages = new ArrayList<>();
+        for (Appointment appointment : appointments) {
+            try {
+                messages.add(createAppointmentConfirmedMessage(appointment));
+            } catch (Exception e) {
+                log.error("Error preparing confirmation email for appointment {}: {}", 
+                        appointment.getId(), e.getMessage(), e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+        try {
+            mailSender.send(messages.toArray(new MimeMessage[0]));
+            log.info("Sent {} appointment confirmation emails", messages.size());
+        } catch (Exception e) {
+            log.error("Error sending appointment confirmation emails: {}", e.getMessage(), e);
+        }
+    }
+
+    private MimeMessage createAppointmentConfirmedMessage(Appointment appointment) throws Exception {
+        User user = appointment.getUser();
+        Provider provider = appointment.getProvider();
+
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+        helper.setFrom(fromEmail, senderName);
+        helper.setTo(user.getEmail());
+        helper.setSubject("Randevu Onayınız");
+
+        // Prepare Thymeleaf context
+        Context context = new Context();
+        context.setVariable("userName", user.getFullName());
+        context.setVariable("providerBusinessName", provider.getBusinessName());
+        context.setVariable("serviceName", appointment.getServiceName());
+        context.setVariable("appointmentDate", appointment.getStartTime().toLocalDate().format(DateTimeFormatter.ISO_LOCAL_DATE));
+        context.setVariable("appointmentTime", appointment.getStartTime().toLocalTime().format(DateTimeFormatter.ISO_LOCAL_TIME));
+        context.setVariable("duration", java.time.Duration.between(appointment.getStartTime(), appointment.getEndTime()).toMinutes());
+        context.setVariable("notes", appointment.getNotes() != null ? appointment.getNotes() : "");
+
+        // Process template
+        String htmlContent = templateEngine.process("appointment-confirmation-user.html", context);
+        helper.setText(htmlContent, true);
+
+
+        // Add ICS attachment
+        byte[] icsBytes = generateIcsForAppointment(appointment);
+        helper.addAttachment("randevu.ics", new ByteArrayDataSource(icsBytes, "text/calendar"));
+        return message;
+    }
+
+    /**
+     * Asynchronously send one summary email to the provider about a new appointment series
+     */
+    @Async
+    public void sendNewSeriesNotificationToProvider(List<Appointment> appointments) {
+        try {
+            Appointment first = appointments.get(0);
+            Provider provider = first.getProvider();
+            User user = first.getUser();
+
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+            helper.setFrom(fromEmail, senderName);
+            helper.setTo(provider.getEmail());
+            helper.setSubject("Yeni Tekrarlayan Randevu Bildirimi");
+
+            // Prepare Thymeleaf context
+            Context context = createSeriesContext(appointments);
+            context.setVariable("providerName", provider.getFullName());
+            context.setVariable("userName", user.getFullName());
+
+            // Process template
+            String htmlContent = templateEngine.process("new-series-provider-notification.html", context);
+            helper.setText(htmlContent, true);
+
+            // Add ICS attachment with every appointment of the series
+            byte[] icsBytes = generateIcsForAppointments(appointments);
+            helper.addAttachment("randevular.ics", new ByteArrayDataSource(icsBytes, "text/calendar"));
+
+            mailSender.send(message);
+            log.info("New series notification email ({} appointments) sent to provider {}", 
+                    appointments.size(), provider.getEmail());
+        } catch (Exception e) {
+            log.error("Error sending new series notification to provider: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Asynchronously send one summary email to the user about a requested appointment series
+     */
+    @Async
+    public void sendSeriesRequestToUser(List<Appointment> appointments) {
+        try {
+            Appointment first = appointments.get(0);
+            User user = first.getUser();
+            Provider provider = first.getProvider();
 
             MimeMessage message = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
 
             helper.setFrom(fromEmail, senderName);
             helper.setTo(user.getEmail());
-            helper.setSubject("Randevu Onayınız");
+            helper.setSubject("Tekrarlayan Randevu Talebiniz Alındı");
 
             // Prepare Thymeleaf context
-            Context context = new Context();
+            Context context = createSeriesContext(appointments);
             context.setVariable("userName", user.getFullName());
             context.setVariable("providerBusinessName", provider.getBusinessName());
-            context.setVariable("serviceName", appointment.getServiceName());
-            context.setVariable("appointmentDate", appointment.getStartTime().toLocalDate().format(DateTimeFormatter.ISO_LOCAL_DATE));
-            context.setVariable("appointmentTime", appointment.getStartTime().toLocalTime().format(DateTimeFormatter.ISO_LOCAL_TIME));
-            context.setVariable("duration", java.time.Duration.between(appointment.getStartTime(), appointment.getEndTime()).toMinutes());
-            context.setVariable("notes", appointment.getNotes() != null ? appointment.getNotes() : "");
 
             // Process template
-            String htmlContent = templateEngine.process("appointment-confirmation-user.html", context);
+            String htmlContent = templateEngine.process("appointment-series-request-user.html", context);
             helper.setText(htmlContent, true);
 
+            // Add ICS attachment with every appointment of the series
+            byte[] icsBytes = generateIcsForAppointments(appointments);
+            helper.addAttachment("randevular.ics", new ByteArrayDataSource(icsBytes, "text/calendar"));
 
-            // Add ICS attachment
-            byte[] icsBytes = generateIcsForAppointment(appointment);
-            helper.addAttachment("randevu.ics", new ByteArrayDataSource(icsBytes, "text/calendar"));
+            mailSender.send(message);
+            log.info("Series request email ({} appointments) sent to user {}", appointments.size(), user.getEmail());
+        } catch (Exception e) {
+            log.error("Error sending series request email to user: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Asynchronously send one email to a user listing the waitlist slots offered to them
+     */
+    @Async
+    public void sendWaitlistOffersToUser(List<WaitlistService.WaitlistOffer> offers) {
+        try {
+            WaitlistService.WaitlistOffer first = offers.get(0);
+
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+            helper.setFrom(fromEmail, senderName);
+            helper.setTo(first.userEmail());
+            helper.setSubject("Bekleme Listesi: Uygun Randevu Bulundu");
+
+            // Prepare Thymeleaf context
+            Context context = new Context();
+            context.setVariable("userName", first.userName());
+            context.setVariable("offers", offers);
+
+            // Process template
+            String htmlContent = templateEngine.process("waitlist-offer-user.html", context);
+            helper.setText(htmlContent, true);
 
             mailSender.send(message);
-            log.info("Appointment confirmation email sent to user {}", user.getEmail());
+            log.info("Waitlist offer email ({} offers) sent to user {}", offers.size(), first.userEmail());
         } catch (Exception e) {
-            log.error("Error sending appointment confirmation to user: {}", e.getMessage(), e);
+            log.error("Error sending waitlist offer email to user: {}", e.getMessage(), e);
         }
     }
 
+    /**
+     * Template variables shared by the series summary emails
+     */
+    private Context createSeriesContext(List<Appointment> appointments) {
+        Appointment first = appointments.get(0);
+        Context context = new Context();
+        context.setVariable("serviceName", first.getServiceName());
+        context.setVariable("duration", java.time.Duration.between(first.getStartTime(), first.getEndTime()).toMinutes());
+        context.setVariable("notes", first.getNotes() != null ? first.getNotes() : "");
+        context.setVariable("appointmentTimes", appointments.stream()
+                .map(a -> a.getStartTime().toLocalDate().format(DateTimeFormatter.ISO_LOCAL_DATE) + " "
+                        + a.getStartTime().toLocalTime().format(DateTimeFormatter.ISO_LOCAL_TIME))
+                .toList());
+        return context;
+    }
+
     /**
      * Generate ICS calendar file for the appointment
      */
     private byte[] generateIcsForAppointment(Appointment appointment) throws Exception {
+        return generateIcsForAppointments(List.of(appointment));
+    }
+
+    /**
+     * Generate a single ICS calendar file containing one event per appointment
+     */
+    private byte[] generateIcsForAppointments(List<Appointment> appointments) throws Exception {
         // Create a calendar instance
         Calendar calendar = new Calendar();
         calendar.getProperties().add(new ProdId("-//Randevu Sistemi//iCal4j 3.0//TR"));
@@ -188,6 +348,22 @@ public class EmailService {
         TimeZoneRegistry registry = TimeZoneRegistryFactory.getInstance().createRegistry();
         TimeZone timezone = registry.getTimeZone("Europe/Istanbul");
 
+        for (Appointment appointment : appointments) {
+            calendar.getComponents().add(createEvent(appointment, timezone));
+        }
+
+        // Write to output stream
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        CalendarOutputter outputter = new CalendarOutputter();
+        outputter.output(calendar, baos);
+
+        return baos.toByteArray();
+    }
+
+    /**
+     * Create the calendar event for an appointment
+     */
+    private VEvent createEvent(Appointment appointment, TimeZone timezone) throws Exception {
         // Create the event
         DateTime start = new DateTime(Date.from(appointment.getStartTime().atZone(ZoneId.of("Europe/Istanbul")).toInstant()));
         start.setTimeZone(timezone);
@@ -231,13 +407,6 @@ public class EmailService {
         // Add organizer
         event.getProperties().add(new Organizer("mailto:" + appointment.getProvider().getEmail()));
 
-        calendar.getComponents().add(event);
-
-        // Write to output stream
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        CalendarOutputter outputter = new CalendarOutputter();
-        outputter.output(calendar, baos);
-
-        return baos.toByteArray();
+        return event;
     }
 }
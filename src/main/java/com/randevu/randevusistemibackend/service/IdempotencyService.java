@@ -0,0 +1,162 @@
+package com.randevu.randevusistemibackend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.randevu.randevusistemibackend.exception.BadRequestException;
+import com.randevu.randevusistemibackend.exception.ConflictException;
+import com.randevu.randevusistemibackend.model.IdempotencyRecord;
+import com.randevu.randevusistemibackend.repository.IdempotencyRecordRepository;
+import com.randevu.randevusistemibackend.util.TtlCache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Replays the stored response of a request that is resent with the same Idempotency-Key.
+ *
+ * Completed responses are served from a bounded in-memory cache; on a miss the key is
+ * claimed by inserting a row whose (user, key) pair is unique, so only one node runs the
+ * request. Other attempts see the claim and either replay the completed response or are
+ * told the original is still in progress. A failed request releases its claim so the
+ * client can retry with the same key.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final ObjectMapper objectMapper;
+    private final TtlCache<String, IdempotencyRecord> completed;
+    private final long ttlSeconds;
+    private final long inProgressTimeoutSeconds;
+
+    public IdempotencyService(IdempotencyRecordRepository recordRepository,
+                              ObjectMapper objectMapper,
+                              @Value("${app.idempotency.ttl-seconds:86400}") long ttlSeconds,
+                              @Value("${app.idempotency.max-cached:10000}") int maxCached,
+                              @Value("${app.idempotency.in-progress-timeout-seconds:60}") long inProgressTimeoutSeconds) {
+        this.recordRepository = recordRepository;
+        this.objectMapper = objectMapper;
+        this.completed = new TtlCache<>(ttlSeconds * 1000, maxCached);
+        this.ttlSeconds = ttlSeconds;
+        this.inProgressTimeoutSeconds = inProgressTimeoutSeconds;
+    }
+
+    /**
+     * Run the action once per user and key; later calls with the same key get the first result.
+     * Reusing a key for a different request body is rejected.
+     */
+    public <T> T execute(Long userId, String key, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key.isBlank() || key.length() > 100) {
+            throw new BadRequestException("Idempotency-Key must be between 1 and 100 characters",
+                                        "INVALID_IDEMPOTENCY_KEY");
+        }
+        String requestHash = hash(request);
+        String cacheKey = userId + ":" + key;
+
+        IdempotencyRecord cached = completed.get(cacheKey);
+        if (cached != null) {
+            log.debug("Replaying cached response for idempotency key {} of user {}", key, userId);
+            return replay(cached, requestHash, responseType);
+        }
+
+        IdempotencyRecord claim = claim(userId, key, requestHash);
+        if (claim.getStatus() == IdempotencyRecord.IdempotencyStatus.COMPLETED) {
+            completed.put(cacheKey, claim);
+            log.debug("Replaying stored response for idempotency key {} of user {}", key, userId);
+            return replay(claim, requestHash, responseType);
+        }
+
+        T response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            recordRepository.deleteById(claim.getId());
+            throw e;
+        }
+
+        claim.setResponseBody(serialize(response));
+        claim.setStatus(IdempotencyRecord.IdempotencyStatus.COMPLETED);
+        recordRepository.complete(claim.getId(), claim.getResponseBody());
+        completed.put(cacheKey, claim);
+        return response;
+    }
+
+    /**
+     * Insert an IN_PROGRESS row for the key, or return the row another attempt already holds.
+     */
+    private IdempotencyRecord claim(Long userId, String key, String requestHash) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setUserId(userId);
+        record.setIdempotencyKey(key);
+        record.setRequestHash(requestHash);
+        try {
+            return recordRepository.saveAndFlush(record);
+        } catch (DataIntegrityViolationException e) {
+            IdempotencyRecord existing = recordRepository.findByUserIdAndIdempotencyKey(userId, key)
+                    .orElseThrow(() -> new ConflictException("Request with this Idempotency-Key is being processed",
+                                                           "IDEMPOTENCY_IN_PROGRESS"));
+            if (existing.getStatus() == IdempotencyRecord.IdempotencyStatus.COMPLETED) {
+                return existing;
+            }
+            if (existing.getCreatedAt() != null
+                    && existing.getCreatedAt().plusSeconds(inProgressTimeoutSeconds).isBefore(LocalDateTime.now())) {
+                // The node that claimed it died mid-request; take the key over
+                log.warn("Taking over abandoned idempotency key {} of user {}", key, userId);
+                recordRepository.deleteById(existing.getId());
+                return claim(userId, key, requestHash);
+            }
+            throw new ConflictException("Request with this Idempotency-Key is being processed",
+                                      "IDEMPOTENCY_IN_PROGRESS");
+        }
+    }
+
+    private <T> T replay(IdempotencyRecord record, String requestHash, Class<T> responseType) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new BadRequestException("Idempotency-Key was already used for a different request",
+                                        "IDEMPOTENCY_KEY_REUSED");
+        }
+        try {
+            return objectMapper.readValue(record.getResponseBody(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response could not be read", e);
+        }
+    }
+
+    private String serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response could not be stored for idempotent replay", e);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(serialize(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval-ms:3600000}")
+    public void deleteExpiredKeys() {
+        int deleted = recordRepository.deleteCreatedBefore(LocalDateTime.now().minusSeconds(ttlSeconds));
+        if (deleted > 0) {
+            log.info("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+}
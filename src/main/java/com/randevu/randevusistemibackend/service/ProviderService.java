@@ -2,41 +2,178 @@ package com.randevu.randevusistemibackend.service;
 
 import com.randevu.randevusistemibackend.dto.ProviderDTO;
 import com.randevu.randevusistemibackend.dto.ProviderFilterRequest;
+import com.randevu.randevusistemibackend.dto.ProviderSliceResponse;
 import com.randevu.randevusistemibackend.model.Provider;
 import com.randevu.randevusistemibackend.repository.ProviderRepository;
 import com.randevu.randevusistemibackend.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.randevu.randevusistemibackend.util.TransactionCallbacks;
+import com.randevu.randevusistemibackend.util.TtlCache;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.criteria.Predicate;
 
+import org.hibernate.Cache;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service class for managing provider-related operations
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ProviderService {
 
     private final UserRepository userRepository;
     private final ProviderRepository providerRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TaskScheduler taskScheduler;
+    // Match counts per filter; a search total may lag behind new or changed providers by the TTL
+    private final TtlCache<FilterKey, Long> matchCounts;
+    // Replica reads are assumed to catch up within the routing stickiness window
+    private final boolean replicaEnabled;
+    private final long replicaLagMillis;
+
+    public ProviderService(UserRepository userRepository,
+                           ProviderRepository providerRepository,
+                           EntityManagerFactory entityManagerFactory,
+                           TaskScheduler taskScheduler,
+                           @Value("${app.provider-search.count-ttl-seconds:60}") long countTtlSeconds,
+                           @Value("${app.provider-search.max-cached-counts:1000}") int maxCachedCounts,
+                           @Value("${app.datasource.replica.url:}") String replicaUrl,
+                           @Value("${app.datasource.replica.stickiness-ms:5000}") long replicaLagMillis) {
+        this.userRepository = userRepository;
+        this.providerRepository = providerRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.taskScheduler = taskScheduler;
+        this.matchCounts = new TtlCache<>(countTtlSeconds * 1000, maxCachedCounts);
+        this.replicaEnabled = !replicaUrl.isBlank();
+        this.replicaLagMillis = replicaLagMillis;
+    }
+
+    /**
+     * The filter fields that decide which providers match.
+     */
+    private record FilterKey(String service, String city, String businessName, Boolean available) {
+
+        static FilterKey of(ProviderFilterRequest filter) {
+            return new FilterKey(filter.getService(), filter.getCity(), filter.getBusinessName(),
+                    Boolean.TRUE.equals(filter.getAvailable()));
+        }
+    }
+
+    /**
+     * Called once a provider's profile, availability or services were saved.
+     *
+     * The READ_WRITE second-level cache already holds the new provider row after commit,
+     * so nothing is evicted right away: an eviction would only make the next read-only
+     * lookup reload it, possibly from a replica that has not applied the change yet.
+     * Hibernate does drop changed collections, though, and such a lookup may refill them
+     * from the replica. With a replica configured they are therefore evicted once more
+     * after the replica lag bound, so the next load picks up the change.
+     */
+    public void onProviderChanged(Provider provider) {
+        if (!replicaEnabled) {
+            return;
+        }
+        Long providerId = provider.getId();
+        TransactionCallbacks.afterCommit(() -> taskScheduler.schedule(() -> evictCollections(providerId),
+                Instant.now().plusMillis(replicaLagMillis)));
+    }
+
+    private void evictCollections(Long providerId) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictCollectionData(Provider.class.getName() + ".services", providerId);
+        cache.evictCollectionData(Provider.class.getName() + ".serviceCapacities", providerId);
+        cache.evictCollectionData(Provider.class.getName() + ".businessHours", providerId);
+        log.debug("Evicted collections of provider {} from the second-level cache", providerId);
+    }
 
     /**
-     * Search for providers based on filter criteria using database queries
+     * Search for providers based on filter criteria using database queries.
+     * The total comes from the cached match count, so a page costs one query.
      * 
      * @param filter The filter criteria for searching providers
      * @return A paginated list of providers matching the criteria
      */
+    @Transactional(readOnly = true)
     public Page<ProviderDTO> findProvidersByFilter(ProviderFilterRequest filter) {
-        Specification<Provider> spec = (root, query, criteriaBuilder) -> {
+        Pageable pageable = PageRequest.of(filter.getPageNumber(), filter.getPageSize());
+        Specification<Provider> spec = buildSpecification(filter);
+        Slice<Provider> slice = providerRepository.findSlice(spec, pageable);
+        initializeCollections(slice);
+        // Not called when the slice itself shows the total, e.g. a short first page
+        return PageableExecutionUtils.getPage(slice.map(ProviderDTO::fromEntity).getContent(), pageable,
+                () -> approximateCount(filter, spec));
+    }
+
+    /**
+     * Search for providers one slice at a time, for infinite scrolling. No count runs
+     * unless {@code includeTotal} is set, and then it is served from the cache when possible.
+     * 
+     * @param filter The filter criteria for searching providers
+     * @param includeTotal Whether to report the approximate number of matches
+     * @return One page of matching providers and whether more follow
+     */
+    @Transactional(readOnly = true)
+    public ProviderSliceResponse findProviderSliceByFilter(ProviderFilterRequest filter, boolean includeTotal) {
+        Specification<Provider> spec = buildSpecification(filter);
+        Slice<Provider> slice = providerRepository.findSlice(spec,
+                PageRequest.of(filter.getPageNumber(), filter.getPageSize()));
+        initializeCollections(slice);
+        return new ProviderSliceResponse(
+                slice.map(ProviderDTO::fromEntity).getContent(),
+                slice.getNumber(),
+                slice.getSize(),
+                slice.hasNext(),
+                includeTotal ? approximateCount(filter, spec) : null);
+    }
+
+    /**
+     * Find up to {@code maxResults} providers matching the filter, ignoring its paging fields
+     * 
+     * @param filter The filter criteria for searching providers
+     * @param maxResults Maximum number of providers to return
+     * @return The matching providers
+     */
+    public List<Provider> findMatchingProviders(ProviderFilterRequest filter, int maxResults) {
+        return providerRepository.findSlice(buildSpecification(filter), PageRequest.of(0, maxResults)).getContent();
+    }
+
+    // Load the collections the DTOs expose inside the read-only transaction, in batches
+    private static void initializeCollections(Slice<Provider> providers) {
+        providers.forEach(provider -> {
+            Hibernate.initialize(provider.getServices());
+            Hibernate.initialize(provider.getServiceCapacities());
+        });
+    }
+
+    private long approximateCount(ProviderFilterRequest filter, Specification<Provider> spec) {
+        FilterKey key = FilterKey.of(filter);
+        Long count = matchCounts.get(key);
+        if (count == null) {
+            count = providerRepository.count(spec);
+            matchCounts.put(key, count);
+        }
+        return count;
+    }
+
+    private Specification<Provider> buildSpecification(ProviderFilterRequest filter) {
+        return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
 
             if (filter.getBusinessName() != null && !filter.getBusinessName().isEmpty()) {
@@ -57,8 +194,5 @@ public class ProviderService {
 
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
-
-        Page<Provider> providerPage = providerRepository.findAll(spec, PageRequest.of(filter.getPageNumber(), filter.getPageSize()));
-        return providerPage.map(ProviderDTO::fromEntity);
     }
 }
@@ -0,0 +1,288 @@
+package com.randevu.randevusistemibackend.service;
+
+import com.randevu.randevusistemibackend.dto.ProviderStatsResponse;
+import com.randevu.randevusistemibackend.exception.BadRequestException;
+import com.randevu.randevusistemibackend.model.Appointment;
+import com.randevu.randevusistemibackend.model.Appointment.AppointmentStatus;
+import com.randevu.randevusistemibackend.util.TransactionCallbacks;
+import com.randevu.randevusistemibackend.util.TtlCache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Appointment counts per provider, day, service and status.
+ *
+ * Every appointment write adds +1/-1 deltas to the provider_daily_stats rollup in the
+ * same transaction, so the counts commit or roll back with the change itself. Dashboards
+ * sum rollup rows, one per non-empty bucket, and never scan appointments. A window of
+ * days around today is also kept in memory per provider, loaded on demand, updated with
+ * the same deltas after commit and reloaded when it expires, so other nodes' writes show
+ * up within the TTL.
+ */
+@Service
+@Slf4j
+public class ProviderStatsService {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO provider_daily_stats (provider_id, day, service_name, status, appointment_count) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (provider_id, day, service_name, status) " +
+            "DO UPDATE SET appointment_count = provider_daily_stats.appointment_count + EXCLUDED.appointment_count";
+
+    private static final String LOAD_SQL =
+            "SELECT day, service_name, status, appointment_count FROM provider_daily_stats " +
+            "WHERE provider_id = ? AND day BETWEEN ? AND ? AND appointment_count <> 0";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TtlCache<Long, ProviderRollup> rollups;
+    private final Map<Long, AtomicLong> modifications = new ConcurrentHashMap<>();
+    private final int windowDays;
+    private final int maxDays;
+
+    public ProviderStatsService(JdbcTemplate jdbcTemplate,
+                                @Value("${app.provider-stats.window-days:90}") int windowDays,
+                                @Value("${app.provider-stats.ttl-seconds:300}") long ttlSeconds,
+                                @Value("${app.provider-stats.max-providers:1000}") int maxProviders,
+                                @Value("${app.provider-stats.max-days:366}") int maxDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rollups = new TtlCache<>(ttlSeconds * 1000, maxProviders);
+        this.windowDays = windowDays;
+        this.maxDays = maxDays;
+    }
+
+    /**
+     * A provider's appointments starting on one day, for one service and in one status.
+     * Ordered the same way as the rollup's primary key, so batches lock rows in one order.
+     */
+    public record Bucket(Long providerId, LocalDate day, String serviceName, AppointmentStatus status)
+            implements Comparable<Bucket> {
+
+        private static final Comparator<Bucket> ORDER = Comparator.comparing(Bucket::providerId)
+                .thenComparing(Bucket::day)
+                .thenComparing(Bucket::serviceName)
+                .thenComparing(bucket -> bucket.status().name());
+
+        static Bucket of(Appointment appointment, AppointmentStatus status) {
+            return new Bucket(appointment.getProvider().getId(), appointment.getStartTime().toLocalDate(),
+                    appointment.getServiceName() != null ? appointment.getServiceName() : "", status);
+        }
+
+        @Override
+        public int compareTo(Bucket other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    /**
+     * Count newly inserted appointments in their current status.
+     */
+    public void recordCreated(Collection<Appointment> appointments) {
+        SortedMap<Bucket, Long> deltas = new TreeMap<>();
+        appointments.forEach(appointment -> deltas.merge(Bucket.of(appointment, appointment.getStatus()), 1L, Long::sum));
+        apply(deltas);
+    }
+
+    /**
+     * Move an appointment from one status bucket to another.
+     */
+    public void recordTransition(Appointment appointment, AppointmentStatus from, AppointmentStatus to) {
+        SortedMap<Bucket, Long> deltas = new TreeMap<>();
+        deltas.merge(Bucket.of(appointment, from), -1L, Long::sum);
+        deltas.merge(Bucket.of(appointment, to), 1L, Long::sum);
+        apply(deltas);
+    }
+
+    /**
+     * Same as {@link #recordTransition} for many appointments, written in one batch.
+     * {@code previousStatuses} maps appointment ids to the status they left.
+     */
+    public void recordTransitions(Collection<Appointment> appointments, Map<Long, AppointmentStatus> previousStatuses,
+                                  AppointmentStatus to) {
+        SortedMap<Bucket, Long> deltas = new TreeMap<>();
+        for (Appointment appointment : appointments) {
+            deltas.merge(Bucket.of(appointment, previousStatuses.get(appointment.getId())), -1L, Long::sum);
+            deltas.merge(Bucket.of(appointment, to), 1L, Long::sum);
+        }
+        apply(deltas);
+    }
+
+    /**
+     * Apply deltas that another writer already stored in the rollup table and committed.
+     */
+    public void onRollupsUpdated(Map<Bucket, Long> deltas) {
+        deltas.forEach((bucket, delta) -> {
+            modificationCounter(bucket.providerId()).incrementAndGet();
+            ProviderRollup rollup = rollups.get(bucket.providerId());
+            if (rollup != null) {
+                rollup.add(bucket.day(), bucket.serviceName(), bucket.status(), delta);
+            }
+        });
+    }
+
+    private void apply(SortedMap<Bucket, Long> deltas) {
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Bucket, Long>> rows = new ArrayList<>(deltas.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.getKey().providerId());
+            ps.setDate(2, Date.valueOf(row.getKey().day()));
+            ps.setString(3, row.getKey().serviceName());
+            ps.setString(4, row.getKey().status().name());
+            ps.setLong(5, row.getValue());
+        });
+        TransactionCallbacks.afterCommit(() -> onRollupsUpdated(deltas));
+    }
+
+    /**
+     * Counts of the provider's appointments starting between two days (inclusive).
+     * Reads rollup rows only: at most one per day, service and status in the range.
+     */
+    public ProviderStatsResponse getStats(Long providerId, LocalDate from, LocalDate to,
+                                          ProviderStatsResponse.Grouping grouping) {
+        if (to.isBefore(from)) {
+            throw new BadRequestException("End date must not be before start date", "INVALID_DATE_RANGE");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new BadRequestException("Date range must not exceed " + maxDays + " days", "INVALID_DATE_RANGE");
+        }
+
+        ProviderRollup rollup = getOrLoad(providerId);
+        List<StatsRow> rows = rollup != null && rollup.covers(from, to)
+                ? rollup.rows(from, to)
+                : load(providerId, from, to);
+        return summarize(from, to, grouping, rows);
+    }
+
+    /**
+     * One rollup row: the count of a day, service and status.
+     */
+    record StatsRow(LocalDate day, String serviceName, AppointmentStatus status, long count) {
+    }
+
+    static ProviderStatsResponse summarize(LocalDate from, LocalDate to, ProviderStatsResponse.Grouping grouping,
+                                           List<StatsRow> rows) {
+        Map<String, Map<AppointmentStatus, Long>> buckets = new TreeMap<>();
+        Map<AppointmentStatus, Long> totals = new EnumMap<>(AppointmentStatus.class);
+        for (StatsRow row : rows) {
+            if (row.count() == 0) {
+                continue;
+            }
+            String key = switch (grouping) {
+                case DAY -> row.day().toString();
+                case WEEK -> row.day().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).toString();
+                case SERVICE -> row.serviceName();
+            };
+            buckets.computeIfAbsent(key, k -> new EnumMap<>(AppointmentStatus.class))
+                    .merge(row.status(), row.count(), Long::sum);
+            totals.merge(row.status(), row.count(), Long::sum);
+        }
+
+        List<ProviderStatsResponse.StatsBucket> result = new ArrayList<>(buckets.size());
+        buckets.forEach((key, counts) -> result.add(new ProviderStatsResponse.StatsBucket(
+                key.isEmpty() ? null : key,
+                counts,
+                counts.values().stream().mapToLong(Long::longValue).sum())));
+        return new ProviderStatsResponse(from, to, grouping, result, totals);
+    }
+
+    private ProviderRollup getOrLoad(Long providerId) {
+        LocalDate today = LocalDate.now();
+        ProviderRollup existing = rollups.get(providerId);
+        if (existing != null && existing.center.equals(today)) {
+            return existing;
+        }
+
+        long modificationsBefore = modificationCounter(providerId).get();
+        try {
+            ProviderRollup loaded = new ProviderRollup(today, windowDays);
+            load(providerId, loaded.first, loaded.last)
+                    .forEach(row -> loaded.add(row.day(), row.serviceName(), row.status(), row.count()));
+
+            if (modificationCounter(providerId).get() != modificationsBefore) {
+                log.debug("Stats load for provider {} raced with a write, not caching it", providerId);
+                return null;
+            }
+            rollups.put(providerId, loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            log.warn("Failed to load stats of provider {}: {}", providerId, e.getMessage());
+            rollups.remove(providerId);
+            return null;
+        }
+    }
+
+    private List<StatsRow> load(Long providerId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(LOAD_SQL,
+                (rs, rowNum) -> new StatsRow(rs.getDate(1).toLocalDate(), rs.getString(2),
+                        AppointmentStatus.valueOf(rs.getString(3)), rs.getLong(4)),
+                providerId, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    private AtomicLong modificationCounter(Long providerId) {
+        return modifications.computeIfAbsent(providerId, id -> new AtomicLong());
+    }
+
+    /**
+     * The rollup rows of one provider for {@code windowDays} either side of {@code center}.
+     */
+    static final class ProviderRollup {
+
+        private final LocalDate center;
+        private final LocalDate first;
+        private final LocalDate last;
+        private final Map<StatsKey, AtomicLong> counts = new ConcurrentHashMap<>();
+
+        ProviderRollup(LocalDate center, int windowDays) {
+            this.center = center;
+            this.first = center.minusDays(windowDays);
+            this.last = center.plusDays(windowDays);
+        }
+
+        boolean covers(LocalDate from, LocalDate to) {
+            return !from.isBefore(first) && !to.isAfter(last);
+        }
+
+        void add(LocalDate day, String serviceName, AppointmentStatus status, long delta) {
+            if (day.isBefore(first) || day.isAfter(last)) {
+                return;
+            }
+            counts.computeIfAbsent(new StatsKey(day, serviceName, status), key -> new AtomicLong())
+                    .addAndGet(delta);
+        }
+
+        List<StatsRow> rows(LocalDate from, LocalDate to) {
+            List<StatsRow> rows = new ArrayList<>();
+            counts.forEach((key, count) -> {
+                if (!key.day().isBefore(from) && !key.day().isAfter(to)) {
+                    rows.add(new StatsRow(key.day(), key.serviceName(), key.status(), count.get()));
+                }
+            });
+            return rows;
+        }
+
+        private record StatsKey(LocalDate day, String serviceName, AppointmentStatus status) {
+        }
+    }
+}
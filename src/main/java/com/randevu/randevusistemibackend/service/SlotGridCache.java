@@ -0,0 +1,315 @@
+package com.randevu.randevusistemibackend.service;
+
+import com.randevu.randevusistemibackend.dto.TimeSlotResponse;
+import com.randevu.randevusistemibackend.model.Appointment;
+import com.randevu.randevusistemibackend.model.Provider;
+import com.randevu.randevusistemibackend.repository.AppointmentRepository;
+import com.randevu.randevusistemibackend.util.TransactionCallbacks;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Occupancy bitmaps per provider and day for the next few days.
+ * Each day is split into fixed quanta; one bit per quantum marks opening hours and
+ * another marks booked time, so free-time checks and slot listings become word-level
+ * AND/NOT operations instead of SQL.
+ *
+ * Bitmaps are built on demand from {@link Provider#getBusinessHours()} and one
+ * appointment query, updated in place after appointment writes commit, and rebuilt
+ * when they expire or the day rolls over. Booked time is rounded outwards to whole
+ * quanta, so the grid may hide a free slot but never offers one booked through this
+ * node. Bookings made on other nodes are only seen once the grid expires; until then
+ * their slots may still be listed, and booking one fails the overlap check.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SlotGridCache {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final AppointmentRepository appointmentRepository;
+
+    @Value("${app.booking.slot-grid.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.booking.slot-grid.quantum-minutes:5}")
+    private int quantumMinutes;
+
+    @Value("${app.booking.slot-grid.days-ahead:14}")
+    private int daysAhead;
+
+    @Value("${app.booking.slot-grid.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${app.booking.slot-grid.max-providers:2000}")
+    private int maxProviders;
+
+    private final Map<Long, ProviderGrids> grids = new ConcurrentHashMap<>();
+    // Write counters of providers being built or kept in memory; dropped with their grids
+    private final Map<Long, AtomicLong> modifications = new ConcurrentHashMap<>();
+
+    /**
+     * Whether every day of the range lies inside the window kept in memory.
+     */
+    public boolean covers(LocalDate from, LocalDate to) {
+        LocalDate today = LocalDate.now();
+        return enabled && !from.isBefore(today) && to.isBefore(today.plusDays(daysAhead));
+    }
+
+    /**
+     * List free slots of the given length between two dates (inclusive), or null
+     * when the range is not covered or the grid could not be built.
+     * Slots follow the same grid and conflict rule as {@link AvailabilityService#computeSlots}.
+     */
+    public List<TimeSlotResponse> findAvailableSlots(Provider provider, LocalDate from, LocalDate to,
+                                                     int durationMinutes, LocalDateTime notBefore) {
+        if (!covers(from, to)) {
+            return null;
+        }
+        ProviderGrids providerGrids = getOrBuild(provider);
+        if (providerGrids == null) {
+            return null;
+        }
+
+        List<TimeSlotResponse> slots = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            Provider.BusinessHours hours = provider.getBusinessHours().get(day.getDayOfWeek());
+            if (hours == null || hours.isClosed() || hours.getStartTime() == null || hours.getEndTime() == null
+                    || !hours.getEndTime().isAfter(hours.getStartTime())) {
+                continue;
+            }
+
+            LocalDateTime close = day.atTime(hours.getEndTime());
+            for (LocalDateTime slotStart = day.atTime(hours.getStartTime());
+                 !slotStart.plusMinutes(durationMinutes).isAfter(close);
+                 slotStart = slotStart.plusMinutes(durationMinutes)) {
+                LocalDateTime slotEnd = slotStart.plusMinutes(durationMinutes);
+                if (!slotStart.isBefore(notBefore) && providerGrids.isFree(slotStart, slotEnd)) {
+                    slots.add(new TimeSlotResponse(slotStart, slotEnd));
+                }
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Apply a created, confirmed or cancelled appointment to the bitmaps once the transaction commits.
+     */
+    public void onAppointmentSaved(Appointment appointment) {
+        Long providerId = appointment.getProvider().getId();
+        Booking booking = new Booking(appointment.getId(), appointment.getStartTime(), appointment.getEndTime());
+        boolean active = appointment.getStatus() != Appointment.AppointmentStatus.CANCELLED;
+
+        TransactionCallbacks.afterCommit(() -> {
+            AtomicLong counter = modifications.get(providerId);
+            if (counter != null) {
+                counter.incrementAndGet();
+            }
+            ProviderGrids providerGrids = grids.get(providerId);
+            if (providerGrids == null) {
+                return;
+            }
+            if (active) {
+                providerGrids.book(booking);
+            } else {
+                providerGrids.release(booking.id());
+            }
+        });
+    }
+
+    private ProviderGrids getOrBuild(Provider provider) {
+        Long providerId = provider.getId();
+        LocalDate today = LocalDate.now();
+        ProviderGrids existing = grids.get(providerId);
+        if (existing != null && existing.firstDay.equals(today)
+                && existing.builtAt.plusSeconds(ttlSeconds).isAfter(LocalDateTime.now())) {
+            return existing;
+        }
+
+        AtomicLong counter = modifications.computeIfAbsent(providerId, id -> new AtomicLong());
+        long modificationsBefore = counter.get();
+        try {
+            ProviderGrids built = new ProviderGrids(today, daysAhead, quantumMinutes);
+            built.applyBusinessHours(provider);
+            appointmentRepository.findActiveByProviderIdBetween(
+                            providerId, today.atStartOfDay(), today.plusDays(daysAhead).atStartOfDay())
+                    .forEach(a -> built.book(new Booking(a.getId(), a.getStartTime(), a.getEndTime())));
+
+            // A dropped and recreated counter may have missed a write too
+            if (modifications.get(providerId) != counter || counter.get() != modificationsBefore) {
+                log.debug("Slot grid build for provider {} raced with a write, not caching it", providerId);
+                if (grids.get(providerId) == null) {
+                    modifications.remove(providerId, counter);
+                }
+                return null;
+            }
+
+            if (grids.size() >= maxProviders) {
+                grids.entrySet().stream()
+                        .min(Comparator.comparing(e -> e.getValue().builtAt))
+                        .ifPresent(e -> drop(e.getKey()));
+            }
+            grids.put(providerId, built);
+            return built;
+        } catch (RuntimeException e) {
+            log.warn("Failed to build slot grid for provider {}: {}", providerId, e.getMessage());
+            drop(providerId);
+            return null;
+        }
+    }
+
+    private void drop(Long providerId) {
+        grids.remove(providerId);
+        modifications.remove(providerId);
+    }
+
+    record Booking(Long id, LocalDateTime start, LocalDateTime end) {
+    }
+
+    /**
+     * Bitmaps for a run of consecutive days. Quanta are numbered from the start of
+     * {@code firstDay}; a booking spanning midnight simply continues into the next day's bits.
+     */
+    static final class ProviderGrids {
+
+        private final LocalDate firstDay;
+        private final LocalDateTime builtAt = LocalDateTime.now();
+        private final int quantumMinutes;
+        private final int quanta;
+        private final long[] open;
+        private final long[] busy;
+        // Bookings are kept so that releasing one can restore bits still covered by another
+        private final List<Booking> bookings = new ArrayList<>();
+
+        ProviderGrids(LocalDate firstDay, int days, int quantumMinutes) {
+            this.firstDay = firstDay;
+            this.quantumMinutes = quantumMinutes;
+            this.quanta = days * (MINUTES_PER_DAY / quantumMinutes);
+            this.open = new long[(quanta + 63) >>> 6];
+            this.busy = new long[open.length];
+        }
+
+        void applyBusinessHours(Provider provider) {
+            int days = quanta / (MINUTES_PER_DAY / quantumMinutes);
+            for (int i = 0; i < days; i++) {
+                LocalDate day = firstDay.plusDays(i);
+                Provider.BusinessHours hours = provider.getBusinessHours().get(day.getDayOfWeek());
+                if (hours == null || hours.isClosed() || hours.getStartTime() == null || hours.getEndTime() == null) {
+                    continue;
+                }
+                // Opening hours are rounded inwards so partially open quanta count as closed
+                int from = ceilQuantum(day.atTime(hours.getStartTime()));
+                int to = floorQuantum(day.atTime(hours.getEndTime()));
+                setRange(open, from, to);
+            }
+        }
+
+        synchronized void book(Booking booking) {
+            bookings.removeIf(b -> b.id().equals(booking.id()));
+            bookings.add(booking);
+            setRange(busy, floorQuantum(booking.start()), ceilQuantum(booking.end()));
+        }
+
+        synchronized void release(Long bookingId) {
+            Booking released = null;
+            for (Booking b : bookings) {
+                if (b.id().equals(bookingId)) {
+                    released = b;
+                    break;
+                }
+            }
+            if (released == null) {
+                return;
+            }
+            bookings.remove(released);
+
+            int from = floorQuantum(released.start());
+            int to = ceilQuantum(released.end());
+            clearRange(busy, from, to);
+            for (Booking b : bookings) {
+                int otherFrom = floorQuantum(b.start());
+                int otherTo = ceilQuantum(b.end());
+                if (otherFrom < to && otherTo > from) {
+                    setRange(busy, otherFrom, otherTo);
+                }
+            }
+        }
+
+        /**
+         * A range is free when all its quanta are open and none is booked. Like
+         * {@link AppointmentRepository#hasOverlappingAppointments}, a range ending exactly
+         * when a booking starts is free.
+         */
+        synchronized boolean isFree(LocalDateTime startTime, LocalDateTime endTime) {
+            int from = floorQuantum(startTime);
+            int to = ceilQuantum(endTime);
+            return allSet(open, from, to) && noneSet(busy, from, to);
+        }
+
+        private int floorQuantum(LocalDateTime time) {
+            long minutes = ChronoUnit.MINUTES.between(firstDay.atStartOfDay(), time);
+            return (int) Math.max(0, Math.min(quanta, Math.floorDiv(minutes, quantumMinutes)));
+        }
+
+        private int ceilQuantum(LocalDateTime time) {
+            long seconds = ChronoUnit.SECONDS.between(firstDay.atStartOfDay(), time);
+            long quantumSeconds = quantumMinutes * 60L;
+            return (int) Math.max(0, Math.min(quanta, Math.floorDiv(seconds + quantumSeconds - 1, quantumSeconds)));
+        }
+
+        // Bit ranges below are half-open [from, to)
+
+        private static void setRange(long[] words, int from, int to) {
+            for (int w = from >>> 6; from < to && w <= (to - 1) >>> 6; w++) {
+                words[w] |= mask(w, from, to);
+            }
+        }
+
+        private static void clearRange(long[] words, int from, int to) {
+            for (int w = from >>> 6; from < to && w <= (to - 1) >>> 6; w++) {
+                words[w] &= ~mask(w, from, to);
+            }
+        }
+
+        private static boolean allSet(long[] words, int from, int to) {
+            for (int w = from >>> 6; from < to && w <= (to - 1) >>> 6; w++) {
+                long mask = mask(w, from, to);
+                if ((words[w] & mask) != mask) {
+                    return false;
+                }
+            }
+            return from < to;
+        }
+
+        private static boolean noneSet(long[] words, int from, int to) {
+            for (int w = from >>> 6; from < to && w <= (to - 1) >>> 6; w++) {
+                if ((words[w] & mask(w, from, to)) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long mask(int word, int from, int to) {
+            int lo = Math.max(from, word << 6) - (word << 6);
+            int hi = Math.min(to, (word + 1) << 6) - (word << 6);
+            long upper = hi == 64 ? -1L : (1L << hi) - 1;
+            return upper & (-1L << lo);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.randevu.randevusistemibackend.service;
+
+import com.randevu.randevusistemibackend.util.TimingWheel;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory table of short-lived slot holds.
+ *
+ * Each provider's holds are an immutable array swapped with compare-and-set, so
+ * placing, releasing and checking holds never takes a lock. Expiry is driven by a
+ * {@link TimingWheel}; lookups also ignore holds past their deadline in case the
+ * wheel lags behind. Holds that expire without being released are published as
+ * {@link HoldExpired} events.
+ */
+@Component
+@Slf4j
+public class SlotHoldRegistry {
+
+    private static final SlotHold[] NONE = new SlotHold[0];
+
+    private final Map<Long, AtomicReference<SlotHold[]>> holdsByProvider = new ConcurrentHashMap<>();
+    private final Map<UUID, SlotHold> holdsById = new ConcurrentHashMap<>();
+    private final TimingWheel<SlotHold> expiryWheel;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long ttlSeconds;
+
+    public SlotHoldRegistry(ApplicationEventPublisher eventPublisher,
+                            @Value("${app.booking.holds.ttl-seconds:300}") long ttlSeconds,
+                            @Value("${app.booking.holds.wheel-size:512}") int wheelSize,
+                            @Value("${app.booking.holds.tick-ms:1000}") long tickMillis) {
+        this.eventPublisher = eventPublisher;
+        this.ttlSeconds = ttlSeconds;
+        this.expiryWheel = new TimingWheel<>(wheelSize, tickMillis, System.currentTimeMillis());
+    }
+
+    /**
+     * A reservation of a provider interval by a user until {@code expiresAt}.
+     */
+    public record SlotHold(UUID id, Long providerId, Long userId,
+                           LocalDateTime startTime, LocalDateTime endTime,
+                           LocalDateTime expiresAt, long deadlineMillis) {
+
+        boolean isActive(long nowMillis) {
+            return deadlineMillis > nowMillis;
+        }
+
+        /**
+         * Same rule as AppointmentRepository#hasOverlappingAppointments with the hold as the existing booking.
+         */
+        boolean conflictsWith(LocalDateTime start, LocalDateTime end) {
+            return startTime.isBefore(end) && endTime.isAfter(start);
+        }
+    }
+
+    /**
+     * A hold that reached its deadline without being confirmed or released.
+     */
+    public record HoldExpired(SlotHold hold) {
+    }
+
+    /**
+     * Atomically place a hold unless an active hold of the provider conflicts with it.
+     */
+    public Optional<SlotHold> tryHold(Long providerId, Long userId, LocalDateTime startTime, LocalDateTime endTime) {
+        return tryHold(providerId, userId, startTime, endTime, ttlSeconds);
+    }
+
+    /**
+     * Same as above with a custom lifetime, e.g. for slots offered to waitlisted users.
+     */
+    public Optional<SlotHold> tryHold(Long providerId, Long userId, LocalDateTime startTime, LocalDateTime endTime,
+                                      long holdSeconds) {
+        long now = System.currentTimeMillis();
+        long deadline = now + holdSeconds * 1000;
+        SlotHold hold = new SlotHold(UUID.randomUUID(), providerId, userId, startTime, endTime,
+                LocalDateTime.now().plusSeconds(holdSeconds), deadline);
+
+        AtomicReference<SlotHold[]> ref = holdsByProvider.computeIfAbsent(providerId, id -> new AtomicReference<>(NONE));
+        while (true) {
+            SlotHold[] current = ref.get();
+            for (SlotHold existing : current) {
+                if (existing.isActive(now) && existing.conflictsWith(startTime, endTime)) {
+                    return Optional.empty();
+                }
+            }
+            SlotHold[] next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = hold;
+            if (ref.compareAndSet(current, next)) {
+                break;
+            }
+        }
+
+        holdsById.put(hold.id(), hold);
+        expiryWheel.schedule(hold, deadline);
+        log.debug("Placed hold {} on provider {} from {} to {}", hold.id(), providerId, startTime, endTime);
+        return Optional.of(hold);
+    }
+
+    /**
+     * Look up an active hold by id.
+     */
+    public Optional<SlotHold> find(UUID holdId) {
+        SlotHold hold = holdsById.get(holdId);
+        return hold != null && hold.isActive(System.currentTimeMillis()) ? Optional.of(hold) : Optional.empty();
+    }
+
+    /**
+     * Remove a hold. Returns false if it had already been released or expired.
+     */
+    public boolean release(SlotHold hold) {
+        if (!holdsById.remove(hold.id(), hold)) {
+            return false;
+        }
+        AtomicReference<SlotHold[]> ref = holdsByProvider.get(hold.providerId());
+        if (ref != null) {
+            while (true) {
+                SlotHold[] current = ref.get();
+                SlotHold[] next = Arrays.stream(current).filter(h -> h != hold).toArray(SlotHold[]::new);
+                if (next.length == current.length || ref.compareAndSet(current, next)) {
+                    break;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether an active hold of someone other than {@code userId} conflicts with the range.
+     * Pass a null user to consider every hold.
+     */
+    public boolean isHeldByOthers(Long providerId, LocalDateTime startTime, LocalDateTime endTime, Long userId) {
+        AtomicReference<SlotHold[]> ref = holdsByProvider.get(providerId);
+        if (ref == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        for (SlotHold hold : ref.get()) {
+            if (hold.isActive(now) && !hold.userId().equals(userId) && hold.conflictsWith(startTime, endTime)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Scheduled(fixedRateString = "${app.booking.holds.tick-ms:1000}")
+    public void expireHolds() {
+        expiryWheel.advance(System.currentTimeMillis(), hold -> {
+            if (release(hold)) {
+                log.debug("Hold {} on provider {} expired", hold.id(), hold.providerId());
+                eventPublisher.publishEvent(new HoldExpired(hold));
+            }
+        });
+    }
+}
@@ -0,0 +1,408 @@
+package com.randevu.randevusistemibackend.service;
+
+import com.randevu.randevusistemibackend.dto.WaitlistEntryResponse;
+import com.randevu.randevusistemibackend.dto.WaitlistRequest;
+import com.randevu.randevusistemibackend.exception.BadRequestException;
+import com.randevu.randevusistemibackend.exception.ResourceNotFoundException;
+import com.randevu.randevusistemibackend.model.Provider;
+import com.randevu.randevusistemibackend.model.User;
+import com.randevu.randevusistemibackend.model.WaitlistEntry;
+import com.randevu.randevusistemibackend.repository.UserRepository;
+import com.randevu.randevusistemibackend.repository.WaitlistEntryRepository;
+import com.randevu.randevusistemibackend.util.TransactionCallbacks;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Waitlists that backfill cancelled slots.
+ *
+ * Waiting entries of a provider are kept in memory grouped by the requested day and
+ * duration and ordered by join time, loaded on demand from the database. When an
+ * appointment is cancelled the freed interval is matched off the request path: the
+ * earliest-joined entry whose window fits receives a hold on the slot, and offers are
+ * mailed out in batches, one email per user.
+ *
+ * Offering an entry is a conditional update from WAITING, so entries cancelled or offered
+ * by another node are never offered twice even when this node's queues are stale. An offer
+ * whose hold runs out moves to EXPIRED and the slot goes to the next waiting user. Holds
+ * live in the memory of the node that made the offer, so after a restart of that node its
+ * open offers stay OFFERED.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WaitlistService {
+
+    private final WaitlistEntryRepository waitlistRepository;
+    private final UserRepository userRepository;
+    private final AppointmentIntervalIndex intervalIndex;
+    private final SlotHoldRegistry slotHoldRegistry;
+    private final BookingCoordinator bookingCoordinator;
+    private final EmailService emailService;
+
+    @Value("${app.booking.waitlist.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.booking.waitlist.offer-ttl-seconds:1800}")
+    private long offerTtlSeconds;
+
+    @Value("${app.booking.waitlist.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final Map<Long, ProviderWaitlist> waitlists = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> modifications = new ConcurrentHashMap<>();
+    private final Queue<WaitlistOffer> pendingOffers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * A slot offered to a waitlisted user, as included in the notification email.
+     */
+    public record WaitlistOffer(String userEmail, String userName, String providerBusinessName,
+                                String serviceName, LocalDateTime startTime, LocalDateTime endTime,
+                                UUID holdId, LocalDateTime expiresAt) {
+    }
+
+    /**
+     * Join the waitlist of a provider for a window within a single day.
+     */
+    @Transactional
+    public WaitlistEntryResponse joinWaitlist(WaitlistRequest request, User currentUser) {
+        log.debug("User {} joining waitlist of provider {}", currentUser.getUsername(), request.getProviderId());
+
+        if (!request.getWindowEnd().isAfter(request.getWindowStart())) {
+            throw new BadRequestException("Window end must be after window start", "INVALID_WAITLIST_WINDOW");
+        }
+        if (!request.getWindowStart().toLocalDate().equals(request.getWindowEnd().toLocalDate())) {
+            throw new BadRequestException("Waitlist window must be within a single day", "INVALID_WAITLIST_WINDOW");
+        }
+
+        Provider provider = userRepository.findById(request.getProviderId())
+                .filter(user -> user instanceof Provider)
+                .map(user -> (Provider) user)
+                .orElseThrow(() -> new ResourceNotFoundException("Provider", "id", request.getProviderId()));
+        if (!provider.isAvailable()) {
+            throw new BadRequestException("This provider is not currently accepting appointments",
+                                        "PROVIDER_UNAVAILABLE");
+        }
+
+        int durationMinutes = AvailabilityService.resolveDuration(provider, request.getDurationMinutes());
+        if (request.getWindowStart().plusMinutes(durationMinutes).isAfter(request.getWindowEnd())) {
+            throw new BadRequestException("Waitlist window is shorter than the appointment duration",
+                                        "INVALID_WAITLIST_WINDOW");
+        }
+
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setUser(currentUser);
+        entry.setProvider(provider);
+        entry.setWindowStart(request.getWindowStart());
+        entry.setWindowEnd(request.getWindowEnd());
+        entry.setDurationMinutes(durationMinutes);
+        entry.setServiceName(request.getServiceName());
+        WaitlistEntry saved = waitlistRepository.save(entry);
+
+        TransactionCallbacks.afterCommit(() -> onWaitlistChanged(provider.getId()));
+        log.info("User {} joined waitlist of provider {} with entry {}",
+                currentUser.getUsername(), provider.getId(), saved.getId());
+        return WaitlistEntryResponse.fromEntity(saved);
+    }
+
+    /**
+     * Leave a waitlist. An open offer made on this node is withdrawn and its slot goes to
+     * the next waiting user; one made on another node stays held until it expires.
+     */
+    @Transactional
+    public void leaveWaitlist(Long entryId, User currentUser) {
+        WaitlistEntry entry = waitlistRepository.findById(entryId)
+                .orElseThrow(() -> new ResourceNotFoundException("WaitlistEntry", "id", entryId));
+        if (!entry.getUser().getId().equals(currentUser.getId())) {
+            throw new BadRequestException("You do not have permission to modify this waitlist entry",
+                                        "PERMISSION_DENIED");
+        }
+
+        SlotHoldRegistry.SlotHold offerHold = entry.getStatus() == WaitlistEntry.WaitlistStatus.OFFERED
+                && entry.getOfferedHoldId() != null
+                ? slotHoldRegistry.find(entry.getOfferedHoldId()).orElse(null)
+                : null;
+        entry.setStatus(WaitlistEntry.WaitlistStatus.CANCELLED);
+        waitlistRepository.save(entry);
+
+        Long providerId = entry.getProvider().getId();
+        TransactionCallbacks.afterCommit(() -> onWaitlistChanged(providerId));
+        if (offerHold != null) {
+            TransactionCallbacks.afterCommit(() -> {
+                if (slotHoldRegistry.release(offerHold)) {
+                    onSlotFreed(providerId, offerHold.startTime(), offerHold.endTime());
+                }
+            });
+        }
+        log.info("User {} left waitlist entry {}", currentUser.getUsername(), entryId);
+    }
+
+    /**
+     * Get the waitlist entries of a user, newest first.
+     */
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryResponse> getUserWaitlist(User user) {
+        return waitlistRepository.findByUserOrderByJoinedAtDesc(user).stream()
+                .map(WaitlistEntryResponse::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Offer a freed interval to the first waiting user it fits. Called after a cancellation
+     * has committed and runs on the async executor, under the provider's booking lock so
+     * the offered slot cannot be booked in between the check and the hold.
+     */
+    @Async
+    public void onSlotFreed(Long providerId, LocalDateTime startTime, LocalDateTime endTime) {
+        if (!enabled || !endTime.isAfter(LocalDateTime.now())) {
+            return;
+        }
+        try {
+            bookingCoordinator.withProviderLock(providerId, () -> {
+                offerFreedSlot(providerId, startTime, endTime);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to backfill freed slot of provider {} at {}: {}", providerId, startTime, e.getMessage());
+        }
+    }
+
+    /**
+     * Expire the waitlist offer made under a hold that ran out, and offer its slot to the
+     * next waiting user. Holds placed by bookings are not offers and are ignored.
+     */
+    @Async
+    @EventListener
+    public void onHoldExpired(SlotHoldRegistry.HoldExpired event) {
+        SlotHoldRegistry.SlotHold hold = event.hold();
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (waitlistRepository.expireOffer(hold.id()) == 0) {
+                return;
+            }
+            log.info("Waitlist offer under hold {} of provider {} expired", hold.id(), hold.providerId());
+        } catch (RuntimeException e) {
+            log.warn("Failed to expire waitlist offer under hold {}: {}", hold.id(), e.getMessage());
+            return;
+        }
+        onSlotFreed(hold.providerId(), hold.startTime(), hold.endTime());
+    }
+
+    private void offerFreedSlot(Long providerId, LocalDateTime startTime, LocalDateTime endTime) {
+        ProviderWaitlist waitlist = getOrLoad(providerId);
+        Provider provider = userRepository.findById(providerId)
+                .filter(user -> user instanceof Provider)
+                .map(user -> (Provider) user)
+                .orElse(null);
+        if (provider == null) {
+            return;
+        }
+
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            Candidate candidate = waitlist.pollFitting(startTime, endTime, now);
+            if (candidate == null) {
+                return;
+            }
+
+            LocalDateTime offerStart = candidate.offerStart(startTime, now);
+            LocalDateTime offerEnd = offerStart.plusMinutes(candidate.durationMinutes());
+
+            // The freed time was taken by someone else already; nothing left to offer.
+            // A free answer comes from the database, so bookings made on other nodes are seen too.
+            if (intervalIndex.hasOverlappingAppointments(provider, offerStart, offerEnd)) {
+                waitlist.add(candidate);
+                return;
+            }
+            SlotHoldRegistry.SlotHold hold = slotHoldRegistry
+                    .tryHold(providerId, candidate.userId(), offerStart, offerEnd, offerTtlSeconds)
+                    .orElse(null);
+            if (hold == null) {
+                waitlist.add(candidate);
+                return;
+            }
+
+            if (waitlistRepository.markOffered(candidate.id(), hold.id()) == 0) {
+                // Cancelled or offered elsewhere since it was queued; try the next one
+                slotHoldRegistry.release(hold);
+                continue;
+            }
+
+            WaitlistEntry entry = waitlistRepository.findById(candidate.id()).orElseThrow();
+            WaitlistOffer offer = new WaitlistOffer(entry.getUser().getEmail(), entry.getUser().getFullName(),
+                    entry.getProvider().getBusinessName(), entry.getServiceName(),
+                    offerStart, offerEnd, hold.id(), hold.expiresAt());
+            TransactionCallbacks.afterCommit(() -> pendingOffers.add(offer));
+            log.info("Offered slot {} - {} of provider {} to waitlist entry {}",
+                    offerStart, offerEnd, providerId, candidate.id());
+            return;
+        }
+    }
+
+    /**
+     * Mail out pending offers, grouped so each user gets a single email per batch.
+     */
+    @Scheduled(fixedDelayString = "${app.booking.waitlist.notify-interval-ms:30000}")
+    public void flushOffers() {
+        List<WaitlistOffer> batch = new ArrayList<>();
+        WaitlistOffer offer;
+        while ((offer = pendingOffers.poll()) != null) {
+            batch.add(offer);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<WaitlistOffer>> byUser = batch.stream()
+                .collect(Collectors.groupingBy(WaitlistOffer::userEmail));
+        byUser.values().forEach(emailService::sendWaitlistOffersToUser);
+        log.debug("Sent {} waitlist offers to {} users", batch.size(), byUser.size());
+    }
+
+    private void onWaitlistChanged(Long providerId) {
+        waitlists.remove(providerId);
+        // A load still running holds the counter and sees it bumped or gone
+        AtomicLong counter = modifications.remove(providerId);
+        if (counter != null) {
+            counter.incrementAndGet();
+        }
+    }
+
+    private ProviderWaitlist getOrLoad(Long providerId) {
+        ProviderWaitlist existing = waitlists.get(providerId);
+        if (existing != null && existing.loadedAt.plusSeconds(ttlSeconds).isAfter(LocalDateTime.now())) {
+            return existing;
+        }
+
+        AtomicLong counter = modifications.computeIfAbsent(providerId, id -> new AtomicLong());
+        long modificationsBefore = counter.get();
+        ProviderWaitlist loaded = new ProviderWaitlist();
+        waitlistRepository.findWaitingByProviderId(providerId, LocalDateTime.now())
+                .forEach(entry -> loaded.add(Candidate.of(entry)));
+
+        // A join or leave committed while loading; use the snapshot once but don't keep it
+        if (modifications.get(providerId) == counter && counter.get() == modificationsBefore) {
+            waitlists.put(providerId, loaded);
+        } else if (waitlists.get(providerId) == null) {
+            modifications.remove(providerId, counter);
+        }
+        return loaded;
+    }
+
+    record Candidate(Long id, Long userId, LocalDateTime windowStart, LocalDateTime windowEnd,
+                     int durationMinutes, LocalDateTime joinedAt) {
+
+        static final Comparator<Candidate> PRIORITY = Comparator
+                .comparing(Candidate::joinedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(Candidate::id);
+
+        static Candidate of(WaitlistEntry entry) {
+            return new Candidate(entry.getId(), entry.getUser().getId(), entry.getWindowStart(),
+                    entry.getWindowEnd(), entry.getDurationMinutes(), entry.getJoinedAt());
+        }
+
+        LocalDateTime offerStart(LocalDateTime freedStart, LocalDateTime now) {
+            LocalDateTime start = freedStart.isAfter(windowStart) ? freedStart : windowStart;
+            return now.isAfter(start) ? now : start;
+        }
+
+        boolean fits(LocalDateTime freedStart, LocalDateTime freedEnd, LocalDateTime now) {
+            LocalDateTime limit = freedEnd.isBefore(windowEnd) ? freedEnd : windowEnd;
+            return !offerStart(freedStart, now).plusMinutes(durationMinutes).isAfter(limit);
+        }
+    }
+
+    /**
+     * Waiting entries of one provider, indexed by requested day and then by duration, each
+     * duration ordered by join time. A freed interval only visits the durations that fit
+     * into it, and within each only the entries that joined before the best match so far;
+     * nothing but the match and passed windows is removed.
+     */
+    static final class ProviderWaitlist {
+
+        private final LocalDateTime loadedAt = LocalDateTime.now();
+        private final TreeMap<LocalDate, TreeMap<Integer, NavigableSet<Candidate>>> byDay = new TreeMap<>();
+
+        synchronized void add(Candidate candidate) {
+            byDay.computeIfAbsent(candidate.windowStart().toLocalDate(), day -> new TreeMap<>())
+                    .computeIfAbsent(candidate.durationMinutes(), duration -> new TreeSet<>(Candidate.PRIORITY))
+                    .add(candidate);
+        }
+
+        synchronized Candidate pollFitting(LocalDateTime freedStart, LocalDateTime freedEnd, LocalDateTime now) {
+            LocalDate day = freedStart.toLocalDate();
+            TreeMap<Integer, NavigableSet<Candidate>> byDuration = byDay.get(day);
+            if (byDuration == null) {
+                return null;
+            }
+
+            long freedMinutes = ChronoUnit.MINUTES.between(freedStart.isAfter(now) ? freedStart : now, freedEnd);
+            if (freedMinutes <= 0) {
+                return null;
+            }
+            Candidate match = null;
+            NavigableSet<Candidate> matchBucket = null;
+            Iterator<NavigableSet<Candidate>> buckets = byDuration
+                    .headMap((int) Math.min(freedMinutes, Integer.MAX_VALUE), true).values().iterator();
+            while (buckets.hasNext()) {
+                NavigableSet<Candidate> bucket = buckets.next();
+                Iterator<Candidate> candidates = bucket.iterator();
+                while (candidates.hasNext()) {
+                    Candidate candidate = candidates.next();
+                    if (match != null && Candidate.PRIORITY.compare(candidate, match) > 0) {
+                        break;
+                    }
+                    if (!candidate.windowEnd().isAfter(now)) {
+                        candidates.remove(); // window has passed, drop it
+                    } else if (candidate.fits(freedStart, freedEnd, now)) {
+                        match = candidate;
+                        matchBucket = bucket;
+                        break;
+                    }
+                }
+                if (bucket.isEmpty()) {
+                    buckets.remove();
+                }
+            }
+
+            if (match != null) {
+                matchBucket.remove(match);
+                if (matchBucket.isEmpty()) {
+                    byDuration.remove(match.durationMinutes());
+                }
+            }
+            if (byDuration.isEmpty()) {
+                byDay.remove(day);
+            }
+            return match;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.randevu.randevusistemibackend.util;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * A simple "every N units, COUNT times" recurrence.
+ * Occurrences are derived from the first one on demand instead of being stored,
+ * and each is computed from the start so monthly series do not drift at month ends.
+ */
+public record RecurrenceRule(LocalDateTime first, ChronoUnit unit, int interval, int count) {
+
+    /**
+     * Lazily generate the start times of all occurrences in chronological order.
+     */
+    public Stream<LocalDateTime> occurrences() {
+        return LongStream.range(0, count).mapToObj(this::occurrence);
+    }
+
+    /**
+     * Start time of the last occurrence.
+     */
+    public LocalDateTime last() {
+        return occurrence(count - 1);
+    }
+
+    private LocalDateTime occurrence(long index) {
+        return first.plus(index * interval, unit);
+    }
+}
@@ -0,0 +1,50 @@
+package com.randevu.randevusistemibackend.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs work that failed with a retryable exception, sleeping a jittered,
+ * exponentially growing delay between attempts. The last failure is rethrown
+ * once all attempts are used.
+ */
+public class RetryPolicy {
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final Predicate<RuntimeException> retryOn;
+
+    public RetryPolicy(int maxAttempts, long initialBackoffMillis, Predicate<RuntimeException> retryOn) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.retryOn = retryOn;
+    }
+
+    public <T> T execute(Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return work.get();
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts || !retryOn.test(e)) {
+                    throw e;
+                }
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = initialBackoffMillis << Math.min(attempt - 1, 10);
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            // Full jitter so clients that collided once do not collide again in lockstep
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry", e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.randevu.randevusistemibackend.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed table of locks selected by key hash. Work on keys that map to different
+ * stripes runs in parallel while memory stays constant however many keys exist.
+ */
+public class StripedLock {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public StripedLock(int minStripes) {
+        int size = Integer.highestOneBit(Math.max(1, minStripes - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Get the lock guarding the given key.
+     */
+    public ReentrantLock lockFor(long key) {
+        return stripes[spread(key) & mask];
+    }
+
+    /**
+     * Try to acquire the lock for the key, waiting up to the timeout.
+     */
+    public boolean tryLock(long key, long timeout, TimeUnit unit) throws InterruptedException {
+        return lockFor(key).tryLock(timeout, unit);
+    }
+
+    public void unlock(long key) {
+        lockFor(key).unlock();
+    }
+
+    public int size() {
+        return stripes.length;
+    }
+
+    private static int spread(long key) {
+        int h = Long.hashCode(key);
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,68 @@
+package com.randevu.randevusistemibackend.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for expiring many short-lived items cheaply.
+ * Scheduling is O(1) and lock-free; each {@link #advance} call only visits the
+ * buckets of the ticks that elapsed since the previous call. Deadlines further
+ * away than one revolution stay in their bucket until their round comes up.
+ * Expiry may lag by up to a tick (or a revolution for an item scheduled while the
+ * wheel is advancing past its bucket), so readers should still check deadlines.
+ */
+public class TimingWheel<T> {
+
+    private final Queue<Entry<T>>[] buckets;
+    private final long tickMillis;
+    private volatile long processedTick;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(int size, long tickMillis, long startMillis) {
+        this.buckets = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.tickMillis = tickMillis;
+        this.processedTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedule the item to expire at the given epoch millis.
+     */
+    public void schedule(T item, long deadlineMillis) {
+        // Items due in an already processed tick go to the next bucket to be visited
+        long tick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), processedTick + 1);
+        buckets[(int) (tick % buckets.length)].add(new Entry<>(item, deadlineMillis));
+    }
+
+    /**
+     * Expire every item whose deadline is not after {@code nowMillis}.
+     * Meant to be called periodically from a single thread.
+     */
+    public synchronized void advance(long nowMillis, Consumer<T> onExpire) {
+        long currentTick = nowMillis / tickMillis;
+        // After a long pause there is no point in visiting the same bucket twice
+        long firstTick = Math.max(processedTick + 1, currentTick - buckets.length + 1);
+        for (long tick = firstTick; tick <= currentTick; tick++) {
+            Queue<Entry<T>> bucket = buckets[(int) (tick % buckets.length)];
+            int pending = bucket.size();
+            for (int i = 0; i < pending; i++) {
+                Entry<T> entry = bucket.poll();
+                if (entry == null) {
+                    break;
+                }
+                if (entry.deadlineMillis <= nowMillis) {
+                    onExpire.accept(entry.item);
+                } else {
+                    bucket.add(entry);
+                }
+            }
+        }
+        processedTick = Math.max(processedTick, currentTick);
+    }
+
+    private record Entry<T>(T item, long deadlineMillis) {
+    }
+}
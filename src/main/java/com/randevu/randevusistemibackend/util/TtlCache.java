@@ -0,0 +1,59 @@
+package com.randevu.randevusistemibackend.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Small bounded map whose entries expire a fixed time after they were written.
+ * Entries are kept in insertion order, so the eldest is evicted first when full
+ * and expired entries are dropped from the head on every write.
+ */
+public class TtlCache<K, V> {
+
+    private final long ttlMillis;
+    private final int maxSize;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>();
+
+    public TtlCache(long ttlMillis, int maxSize) {
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value();
+    }
+
+    public synchronized void put(K key, V value) {
+        long now = System.currentTimeMillis();
+        entries.remove(key);
+        entries.put(key, new Entry<>(value, now + ttlMillis));
+
+        var iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, Entry<V>> eldest = iterator.next();
+            if (entries.size() <= maxSize && eldest.getValue().expiresAt() > now) {
+                break;
+            }
+            iterator.remove();
+        }
+    }
+
+    public synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
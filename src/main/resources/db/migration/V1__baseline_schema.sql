@@ -0,0 +1,119 @@
+-- Baseline schema, matching the entity mappings that were previously created by ddl-auto.
+
+CREATE TABLE users (
+    id bigserial PRIMARY KEY,
+    user_type varchar(31) NOT NULL,
+    username varchar(255) NOT NULL UNIQUE,
+    password varchar(255) NOT NULL,
+    email varchar(255) NOT NULL UNIQUE,
+    full_name varchar(255),
+    phone varchar(255),
+    enabled boolean NOT NULL
+);
+
+CREATE TABLE user_roles (
+    user_id bigint NOT NULL REFERENCES users (id),
+    roles varchar(255) CHECK (roles IN ('ROLE_USER', 'ROLE_PROVIDER', 'ROLE_ADMIN'))
+);
+
+CREATE TABLE addresses (
+    id bigserial PRIMARY KEY,
+    street_address varchar(255) NOT NULL,
+    city varchar(255) NOT NULL,
+    state varchar(255) NOT NULL,
+    postal_code varchar(255) NOT NULL,
+    country varchar(255),
+    latitude float(53),
+    longitude float(53),
+    additional_info varchar(255)
+);
+
+CREATE TABLE provider (
+    id bigint PRIMARY KEY REFERENCES users (id),
+    description varchar(500),
+    business_name varchar(255),
+    average_appointment_duration_minutes integer,
+    address_id bigint UNIQUE REFERENCES addresses (id),
+    is_available boolean
+);
+
+CREATE TABLE provider_services (
+    provider_id bigint NOT NULL REFERENCES provider (id),
+    service_name varchar(255)
+);
+
+CREATE TABLE provider_service_capacities (
+    provider_id bigint NOT NULL REFERENCES provider (id),
+    service_name varchar(255) NOT NULL,
+    capacity integer,
+    PRIMARY KEY (provider_id, service_name)
+);
+
+CREATE TABLE provider_business_hours (
+    provider_id bigint NOT NULL REFERENCES provider (id),
+    day_of_week varchar(255) NOT NULL
+        CHECK (day_of_week IN ('MONDAY', 'TUESDAY', 'WEDNESDAY', 'THURSDAY', 'FRIDAY', 'SATURDAY', 'SUNDAY')),
+    start_time time(6),
+    end_time time(6),
+    is_closed boolean,
+    PRIMARY KEY (provider_id, day_of_week)
+);
+
+CREATE TABLE group_slots (
+    id bigserial PRIMARY KEY,
+    provider_id bigint NOT NULL REFERENCES provider (id),
+    service_name varchar(100) NOT NULL,
+    start_time timestamp(6) NOT NULL,
+    end_time timestamp(6) NOT NULL,
+    capacity integer NOT NULL,
+    used integer NOT NULL,
+    CONSTRAINT group_slots_session_key UNIQUE (provider_id, service_name, start_time)
+);
+
+CREATE TABLE appointments (
+    id bigserial PRIMARY KEY,
+    user_id bigint NOT NULL REFERENCES users (id),
+    provider_id bigint NOT NULL REFERENCES provider (id),
+    start_time timestamp(6) NOT NULL,
+    end_time timestamp(6) NOT NULL,
+    service_name varchar(100),
+    notes varchar(500),
+    status varchar(255) NOT NULL CHECK (status IN ('PENDING', 'CONFIRMED', 'CANCELLED', 'COMPLETED', 'NO_SHOW')),
+    group_slot_id bigint,
+    version bigint NOT NULL,
+    created_at timestamp(6),
+    updated_at timestamp(6)
+);
+
+-- Database-enforced non-overlap of active appointments per provider. Closed '[]' bounds match
+-- AppointmentRepository.hasOverlappingAppointments, which also rejects back-to-back bookings.
+-- Seats of the same group session share a key and may overlap; everything else gets its own key.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+ALTER TABLE appointments ADD COLUMN time_range tsrange GENERATED ALWAYS AS (tsrange(start_time, end_time, '[]')) STORED;
+ALTER TABLE appointments ADD CONSTRAINT appointments_no_overlap
+    EXCLUDE USING gist (provider_id WITH =, time_range WITH &&, (COALESCE(group_slot_id, -id)) WITH <>)
+    WHERE (status <> 'CANCELLED');
+
+CREATE TABLE waitlist_entries (
+    id bigserial PRIMARY KEY,
+    user_id bigint NOT NULL REFERENCES users (id),
+    provider_id bigint NOT NULL REFERENCES provider (id),
+    window_start timestamp(6) NOT NULL,
+    window_end timestamp(6) NOT NULL,
+    duration_minutes integer NOT NULL,
+    service_name varchar(100),
+    status varchar(255) NOT NULL CHECK (status IN ('WAITING', 'OFFERED', 'CANCELLED')),
+    offered_hold_id uuid,
+    joined_at timestamp(6)
+);
+
+CREATE TABLE idempotency_keys (
+    id bigserial PRIMARY KEY,
+    user_id bigint NOT NULL,
+    idempotency_key varchar(100) NOT NULL,
+    request_hash varchar(64) NOT NULL,
+    status varchar(255) NOT NULL CHECK (status IN ('IN_PROGRESS', 'COMPLETED')),
+    response_body text,
+    created_at timestamp(6),
+    CONSTRAINT idempotency_keys_user_key UNIQUE (user_id, idempotency_key)
+);
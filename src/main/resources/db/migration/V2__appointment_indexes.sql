@@ -0,0 +1,29 @@
+-- Indexes for the hot appointment queries. Partial indexes leave CANCELLED rows out,
+-- matching the "status NOT IN ('CANCELLED')" filter of the overlap and range queries.
+
+-- findByProviderAndStartTimeBetween, findByProviderOrderByStartTimeDesc
+CREATE INDEX idx_appointments_provider_start ON appointments (provider_id, start_time);
+
+-- findByUserOrderByStartTimeDesc, findByUserAndStartTimeBetween
+CREATE INDEX idx_appointments_user_start ON appointments (user_id, start_time DESC);
+
+-- hasOverlappingAppointments, findActiveByProviderId*: active rows of a provider by time
+CREATE INDEX idx_appointments_provider_active ON appointments (provider_id, start_time, end_time)
+    WHERE status <> 'CANCELLED';
+
+-- AppointmentCompletionJob: open appointments in (end_time, id) keyset order
+CREATE INDEX idx_appointments_open_end ON appointments (end_time, id)
+    WHERE status IN ('PENDING', 'CONFIRMED');
+
+-- Seat lookups of group sessions
+CREATE INDEX idx_appointments_group_slot ON appointments (group_slot_id, user_id)
+    WHERE group_slot_id IS NOT NULL AND status <> 'CANCELLED';
+
+-- WaitlistService loads the waiting entries of one provider
+CREATE INDEX idx_waitlist_provider_waiting ON waitlist_entries (provider_id, window_end)
+    WHERE status = 'WAITING';
+
+CREATE INDEX idx_waitlist_user ON waitlist_entries (user_id, joined_at DESC);
+
+-- Scheduled cleanup of expired idempotency keys
+CREATE INDEX idx_idempotency_keys_created ON idempotency_keys (created_at);
@@ -0,0 +1,8 @@
+-- Keyset pagination of the user and provider appointment lists orders by (start_time, id).
+-- Carrying id in the index lets each page be read as one bounded index range scan.
+
+DROP INDEX idx_appointments_user_start;
+CREATE INDEX idx_appointments_user_start ON appointments (user_id, start_time DESC, id DESC);
+
+DROP INDEX idx_appointments_provider_start;
+CREATE INDEX idx_appointments_provider_start ON appointments (provider_id, start_time DESC, id DESC);
@@ -0,0 +1,7 @@
+-- Users, appointments and addresses get their ids from sequences instead of IDENTITY,
+-- which lets Hibernate batch their inserts. Each nextval reserves a block of 50 ids
+-- (the entities' allocationSize); the serial defaults stay valid for plain SQL inserts.
+
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE appointments_id_seq INCREMENT BY 50;
+ALTER SEQUENCE addresses_id_seq INCREMENT BY 50;
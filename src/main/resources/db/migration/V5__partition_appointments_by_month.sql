@@ -0,0 +1,176 @@
+-- Range-partition appointments by month of start_time so range queries prune to the months
+-- they touch. Partitions older than the archive horizon are detached by
+-- AppointmentPartitionJob and re-attached under appointments_archive; the
+-- appointment_history view reads both, so the history endpoints still see every row.
+--
+-- A primary key of a partitioned table must contain the partition key, hence (id, start_time);
+-- ids still come from one sequence and stay unique. Exclusion constraints cannot span
+-- partitions, so appointments_no_overlap is created on each partition instead.
+
+ALTER TABLE appointments RENAME TO appointments_unpartitioned;
+ALTER TABLE appointments_unpartitioned RENAME CONSTRAINT appointments_pkey TO appointments_unpartitioned_pkey;
+ALTER TABLE appointments_unpartitioned DROP CONSTRAINT appointments_no_overlap;
+ALTER SEQUENCE appointments_id_seq OWNED BY NONE;
+DROP INDEX idx_appointments_provider_start;
+DROP INDEX idx_appointments_user_start;
+DROP INDEX idx_appointments_provider_active;
+DROP INDEX idx_appointments_open_end;
+DROP INDEX idx_appointments_group_slot;
+
+CREATE TABLE appointments (
+    id bigint NOT NULL DEFAULT nextval('appointments_id_seq'),
+    user_id bigint NOT NULL REFERENCES users (id),
+    provider_id bigint NOT NULL REFERENCES provider (id),
+    start_time timestamp(6) NOT NULL,
+    end_time timestamp(6) NOT NULL,
+    service_name varchar(100),
+    notes varchar(500),
+    status varchar(255) NOT NULL CHECK (status IN ('PENDING', 'CONFIRMED', 'CANCELLED', 'COMPLETED', 'NO_SHOW')),
+    group_slot_id bigint,
+    version bigint NOT NULL,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    time_range tsrange GENERATED ALWAYS AS (tsrange(start_time, end_time, '[]')) STORED,
+    PRIMARY KEY (id, start_time)
+) PARTITION BY RANGE (start_time);
+ALTER SEQUENCE appointments_id_seq OWNED BY appointments.id;
+
+-- Same indexes as V2/V3, created on every partition
+CREATE INDEX idx_appointments_provider_start ON appointments (provider_id, start_time DESC, id DESC);
+CREATE INDEX idx_appointments_user_start ON appointments (user_id, start_time DESC, id DESC);
+CREATE INDEX idx_appointments_provider_active ON appointments (provider_id, start_time, end_time)
+    WHERE status <> 'CANCELLED';
+CREATE INDEX idx_appointments_open_end ON appointments (end_time, id)
+    WHERE status IN ('PENDING', 'CONFIRMED');
+CREATE INDEX idx_appointments_group_slot ON appointments (group_slot_id, user_id)
+    WHERE group_slot_id IS NOT NULL AND status <> 'CANCELLED';
+
+-- Archived months are only read by the history endpoints, so they keep just the keyset indexes
+CREATE TABLE appointments_archive (
+    id bigint NOT NULL,
+    user_id bigint NOT NULL,
+    provider_id bigint NOT NULL,
+    start_time timestamp(6) NOT NULL,
+    end_time timestamp(6) NOT NULL,
+    service_name varchar(100),
+    notes varchar(500),
+    status varchar(255) NOT NULL,
+    group_slot_id bigint,
+    version bigint NOT NULL,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    time_range tsrange GENERATED ALWAYS AS (tsrange(start_time, end_time, '[]')) STORED,
+    PRIMARY KEY (id, start_time)
+) PARTITION BY RANGE (start_time);
+
+CREATE INDEX idx_appointments_archive_provider_start ON appointments_archive (provider_id, start_time DESC, id DESC);
+CREATE INDEX idx_appointments_archive_user_start ON appointments_archive (user_id, start_time DESC, id DESC);
+
+CREATE VIEW appointment_history AS
+    SELECT id, user_id, provider_id, start_time, end_time, service_name, notes, status,
+           group_slot_id, created_at, updated_at
+    FROM appointments
+    UNION ALL
+    SELECT id, user_id, provider_id, start_time, end_time, service_name, notes, status,
+           group_slot_id, created_at, updated_at
+    FROM appointments_archive;
+
+-- Create the partition of the month containing month_start, with its overlap constraint.
+-- Rows that landed in the default partition for that month are moved into it.
+-- Returns false when the month already has a partition, active or archived.
+CREATE FUNCTION create_appointment_partition(month_start date) RETURNS boolean
+LANGUAGE plpgsql AS $$
+DECLARE
+    from_time timestamp := date_trunc('month', month_start);
+    to_time timestamp := date_trunc('month', month_start) + interval '1 month';
+    partition_name text := 'appointments_p' || to_char(month_start, 'YYYYMM');
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('appointment_partitions'));
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+
+    CREATE TEMP TABLE moved_appointments ON COMMIT DROP AS
+        SELECT * FROM appointments_default WHERE false;
+    ALTER TABLE moved_appointments DROP COLUMN time_range;
+    WITH moved AS (
+        DELETE FROM appointments_default WHERE start_time >= from_time AND start_time < to_time
+        RETURNING id, user_id, provider_id, start_time, end_time, service_name, notes, status,
+                  group_slot_id, version, created_at, updated_at
+    )
+    INSERT INTO moved_appointments SELECT * FROM moved;
+
+    EXECUTE format('CREATE TABLE %I PARTITION OF appointments FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, from_time, to_time);
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING gist '
+                   '(provider_id WITH =, time_range WITH &&, (COALESCE(group_slot_id, -id)) WITH <>) '
+                   'WHERE (status <> ''CANCELLED'')',
+                   partition_name, partition_name || '_no_overlap');
+
+    INSERT INTO appointments (id, user_id, provider_id, start_time, end_time, service_name, notes, status,
+                              group_slot_id, version, created_at, updated_at)
+        SELECT * FROM moved_appointments;
+    DROP TABLE moved_appointments;
+    RETURN true;
+END;
+$$;
+
+-- Move the partition of the month containing month_start from appointments to appointments_archive.
+-- Its write-path indexes and overlap constraint are dropped; the archive indexes are built on attach.
+-- Optionally moves it to another tablespace, e.g. one on cheaper or compressed storage.
+-- Returns false when the month has no active partition.
+CREATE FUNCTION archive_appointment_partition(month_start date, archive_tablespace text DEFAULT NULL)
+RETURNS boolean
+LANGUAGE plpgsql AS $$
+DECLARE
+    from_time timestamp := date_trunc('month', month_start);
+    to_time timestamp := date_trunc('month', month_start) + interval '1 month';
+    partition_name text := 'appointments_p' || to_char(month_start, 'YYYYMM');
+    partition_oid regclass;
+    index_name text;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('appointment_partitions'));
+    partition_oid := to_regclass(partition_name);
+    IF partition_oid IS NULL
+            OR NOT EXISTS (SELECT 1 FROM pg_inherits
+                           WHERE inhrelid = partition_oid AND inhparent = 'appointments'::regclass) THEN
+        RETURN false;
+    END IF;
+
+    EXECUTE format('ALTER TABLE appointments DETACH PARTITION %I', partition_name);
+    EXECUTE format('ALTER TABLE %I DROP CONSTRAINT IF EXISTS %I', partition_name, partition_name || '_no_overlap');
+    FOR index_name IN
+        SELECT i.indexrelid::regclass::text FROM pg_index i
+        WHERE i.indrelid = partition_oid AND NOT i.indisprimary
+    LOOP
+        EXECUTE format('DROP INDEX %s', index_name);
+    END LOOP;
+    IF archive_tablespace IS NOT NULL THEN
+        EXECUTE format('ALTER TABLE %I SET TABLESPACE %I', partition_name, archive_tablespace);
+    END IF;
+    EXECUTE format('ALTER TABLE appointments_archive ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, from_time, to_time);
+    RETURN true;
+END;
+$$;
+
+-- Catches rows outside every monthly partition until the maintenance job creates their month
+CREATE TABLE appointments_default PARTITION OF appointments DEFAULT;
+ALTER TABLE appointments_default ADD CONSTRAINT appointments_default_no_overlap
+    EXCLUDE USING gist (provider_id WITH =, time_range WITH &&, (COALESCE(group_slot_id, -id)) WITH <>)
+    WHERE (status <> 'CANCELLED');
+
+-- Every month that has rows, up to three months ahead
+SELECT create_appointment_partition(months.first_day::date)
+FROM (SELECT date_trunc('month', COALESCE(MIN(start_time), localtimestamp)) AS first_month
+      FROM appointments_unpartitioned) bounds,
+     generate_series(bounds.first_month, date_trunc('month', localtimestamp) + interval '3 months',
+                     interval '1 month') AS months(first_day);
+
+INSERT INTO appointments (id, user_id, provider_id, start_time, end_time, service_name, notes, status,
+                          group_slot_id, version, created_at, updated_at)
+    SELECT id, user_id, provider_id, start_time, end_time, service_name, notes, status,
+           group_slot_id, version, created_at, updated_at
+    FROM appointments_unpartitioned;
+
+DROP TABLE appointments_unpartitioned;
@@ -0,0 +1,17 @@
+-- Appointment counts per provider, day of start_time, service and status, kept current by
+-- ProviderStatsService on every status change so dashboards never aggregate appointments.
+-- A missing service is stored as '' because it is part of the primary key.
+
+CREATE TABLE provider_daily_stats (
+    provider_id bigint NOT NULL REFERENCES provider (id),
+    day date NOT NULL,
+    service_name varchar(100) NOT NULL,
+    status varchar(255) NOT NULL CHECK (status IN ('PENDING', 'CONFIRMED', 'CANCELLED', 'COMPLETED', 'NO_SHOW')),
+    appointment_count bigint NOT NULL,
+    PRIMARY KEY (provider_id, day, service_name, status)
+);
+
+INSERT INTO provider_daily_stats (provider_id, day, service_name, status, appointment_count)
+    SELECT provider_id, CAST(start_time AS date), COALESCE(service_name, ''), status, count(*)
+    FROM appointment_history
+    GROUP BY provider_id, CAST(start_time AS date), COALESCE(service_name, ''), status;
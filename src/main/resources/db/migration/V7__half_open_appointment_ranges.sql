@@ -0,0 +1,32 @@
+-- Appointments occupy half-open intervals [start_time, end_time): one may start exactly when
+-- the previous one ends. V1 and V5 generated time_range with closed '[]' bounds, so the
+-- exclusion constraints rejected such back-to-back bookings although the overlap query,
+-- the availability listing and the in-memory checks all accept them.
+--
+-- The expression of a generated column cannot be changed in place, so time_range is dropped
+-- and added again. Dropping it also drops the per-partition overlap constraints, which are
+-- recreated under the names create_appointment_partition uses.
+
+ALTER TABLE appointments DROP COLUMN time_range;
+ALTER TABLE appointments ADD COLUMN time_range tsrange
+    GENERATED ALWAYS AS (tsrange(start_time, end_time, '[)')) STORED;
+
+ALTER TABLE appointments_archive DROP COLUMN time_range;
+ALTER TABLE appointments_archive ADD COLUMN time_range tsrange
+    GENERATED ALWAYS AS (tsrange(start_time, end_time, '[)')) STORED;
+
+DO $$
+DECLARE
+    partition_name text;
+BEGIN
+    FOR partition_name IN
+        SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'appointments'::regclass
+    LOOP
+        EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING gist '
+                       '(provider_id WITH =, time_range WITH &&, (COALESCE(group_slot_id, -id)) WITH <>) '
+                       'WHERE (status <> ''CANCELLED'')',
+                       partition_name, partition_name || '_no_overlap');
+    END LOOP;
+END;
+$$;
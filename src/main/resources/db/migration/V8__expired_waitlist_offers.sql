@@ -0,0 +1,10 @@
+-- A waitlist offer that is not taken up before its hold expires moves to EXPIRED, and the
+-- slot is offered to the next waiting user. WaitlistService finds the entry by the id of
+-- the expired hold; only offered entries carry one.
+
+ALTER TABLE waitlist_entries DROP CONSTRAINT waitlist_entries_status_check;
+ALTER TABLE waitlist_entries ADD CONSTRAINT waitlist_entries_status_check
+    CHECK (status IN ('WAITING', 'OFFERED', 'EXPIRED', 'CANCELLED'));
+
+CREATE INDEX idx_waitlist_offered_hold ON waitlist_entries (offered_hold_id)
+    WHERE status = 'OFFERED';
@@ -0,0 +1,123 @@
+package com.randevu.randevusistemibackend.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and the replica; each
+ * knows its own name, so a query shows which one a transaction was routed to.
+ */
+class ReplicaRoutingDataSourceTests {
+
+	private static final long STICKINESS_MILLIS = 200;
+
+	private JdbcTemplate jdbcTemplate;
+	private TransactionTemplate readWrite;
+	private TransactionTemplate readOnly;
+
+	@BeforeEach
+	void setUp() {
+		DataSource primary = database("primary");
+		DataSource replica = database("replica");
+		DataSource routing = new LazyConnectionDataSourceProxy(
+				new ReplicaRoutingDataSource(primary, replica, STICKINESS_MILLIS, 100));
+
+		jdbcTemplate = new JdbcTemplate(routing);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+		readWrite = new TransactionTemplate(transactionManager);
+		readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+	}
+
+	@AfterEach
+	void clearUser() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void readOnlyTransactionsGoToReplica() {
+		assertThat(nodeName(readOnly)).isEqualTo("replica");
+	}
+
+	@Test
+	void readWriteTransactionsAndPlainStatementsGoToPrimary() {
+		assertThat(nodeName(readWrite)).isEqualTo("primary");
+		assertThat(nodeName()).isEqualTo("primary");
+	}
+
+	@Test
+	void writerReadsFromPrimaryUntilStickinessExpires() throws InterruptedException {
+		signIn("writer");
+		readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET writes = writes + 1"));
+
+		assertThat(nodeName(readOnly)).isEqualTo("primary");
+
+		Thread.sleep(STICKINESS_MILLIS + 50);
+		assertThat(nodeName(readOnly)).isEqualTo("replica");
+	}
+
+	@Test
+	void stickinessIsPerUser() {
+		signIn("writer");
+		readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET writes = writes + 1"));
+
+		signIn("someone-else");
+		assertThat(nodeName(readOnly)).isEqualTo("replica");
+	}
+
+	@Test
+	void anonymousWritesDoNotMakeReadsSticky() {
+		SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken(
+				"key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+		readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET writes = writes + 1"));
+
+		assertThat(nodeName(readOnly)).isEqualTo("replica");
+	}
+
+	@Test
+	void rolledBackWriteDoesNotMakeReadsSticky() {
+		signIn("writer");
+		readWrite.executeWithoutResult(status -> {
+			jdbcTemplate.update("UPDATE node SET writes = writes + 1");
+			status.setRollbackOnly();
+		});
+
+		assertThat(nodeName(readOnly)).isEqualTo("replica");
+	}
+
+	private String nodeName(TransactionTemplate transaction) {
+		return transaction.execute(status -> nodeName());
+	}
+
+	private String nodeName() {
+		return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+	}
+
+	private static void signIn(String username) {
+		SecurityContextHolder.getContext().setAuthentication(
+				new TestingAuthenticationToken(username, "secret", "ROLE_USER"));
+	}
+
+	private static DataSource database(String name) {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+		JdbcTemplate setup = new JdbcTemplate(dataSource);
+		setup.execute("CREATE TABLE node (name VARCHAR(20), writes INT)");
+		setup.update("INSERT INTO node VALUES (?, 0)", name);
+		return dataSource;
+	}
+}
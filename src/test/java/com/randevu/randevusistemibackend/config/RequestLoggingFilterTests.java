@@ -0,0 +1,97 @@
+package com.randevu.randevusistemibackend.config;
+
+import com.randevu.randevusistemibackend.controller.AppointmentController;
+import com.randevu.randevusistemibackend.model.Provider;
+import com.randevu.randevusistemibackend.repository.UserRepository;
+import com.randevu.randevusistemibackend.service.AppointmentExportService;
+import com.randevu.randevusistemibackend.service.AppointmentService;
+import com.randevu.randevusistemibackend.service.IdempotencyService;
+import com.randevu.randevusistemibackend.service.WaitlistService;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Drives the export endpoint through the logging filter. A filter in front of it keeps
+ * the container's response, so the export can check that its rows reach the client
+ * while it is still writing instead of piling up in a cache.
+ */
+class RequestLoggingFilterTests {
+
+	private final AtomicReference<MockHttpServletResponse> rawResponse = new AtomicReference<>();
+	private final AppointmentExportService exportService = mock(AppointmentExportService.class);
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		UserRepository userRepository = mock(UserRepository.class);
+		Provider provider = new Provider();
+		provider.setUsername("provider");
+		when(userRepository.findByUsername("provider")).thenReturn(Optional.of(provider));
+
+		Filter capture = (request, response, chain) -> {
+			rawResponse.set((MockHttpServletResponse) response);
+			chain.doFilter(request, response);
+		};
+		mockMvc = MockMvcBuilders
+				.standaloneSetup(new AppointmentController(mock(AppointmentService.class), exportService,
+						mock(WaitlistService.class), mock(IdempotencyService.class), userRepository))
+				.addFilters(capture, new RequestLoggingFilter())
+				.build();
+	}
+
+	@Test
+	void exportIsWrittenThroughWhileStreaming() throws Exception {
+		AtomicReference<String> seenWhileStreaming = new AtomicReference<>();
+		doAnswer(invocation -> {
+			OutputStream out = invocation.getArgument(2);
+			out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+			out.flush();
+			seenWhileStreaming.set(rawResponse.get().getContentAsString());
+			return 1L;
+		}).when(exportService).exportProviderAppointments(eq(provider()), eq(AppointmentExportService.Format.NDJSON),
+				any(OutputStream.class));
+
+		mockMvc.perform(get("/api/appointments/provider/export").principal(() -> "provider"))
+				.andExpect(status().isOk())
+				.andExpect(content().string("{\"id\":1}\n"));
+
+		assertThat(seenWhileStreaming.get()).isEqualTo("{\"id\":1}\n");
+	}
+
+	@Test
+	void otherEndpointsAreStillLogged() {
+		RequestLoggingFilter filter = new RequestLoggingFilter();
+
+		assertThat(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/appointments/provider/export")))
+				.isTrue();
+		assertThat(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/appointments/provider")))
+				.isFalse();
+	}
+
+	private static Provider provider() {
+		Provider provider = new Provider();
+		provider.setUsername("provider");
+		return provider;
+	}
+}
@@ -0,0 +1,112 @@
+package com.randevu.randevusistemibackend.repository;
+
+import com.randevu.randevusistemibackend.model.Appointment;
+import com.randevu.randevusistemibackend.model.Provider;
+import com.randevu.randevusistemibackend.model.Role;
+import com.randevu.randevusistemibackend.model.User;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rows per second for bulk appointment creation, the way a series booking writes them.
+ * "Before" forces one statement per row, which is what IDENTITY ids imposed;
+ * "after" uses the configured JDBC batch size that sequence ids allow.
+ *
+ * Opt-in: mvn test -Dtest=AppointmentBatchInsertBenchmark -Dbenchmark=true
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@EnabledIf("com.randevu.randevusistemibackend.repository.PostgresAvailability#isAvailable")
+class AppointmentBatchInsertBenchmark {
+
+	private static final int ROWS = 5_000;
+	private static final int ROUNDS = 3;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	private User user;
+	private Provider provider;
+	private LocalDateTime nextStart = LocalDateTime.of(2031, 1, 1, 0, 0);
+
+	@BeforeEach
+	void setUp() {
+		user = new User();
+		user.setUsername("bench-user");
+		user.setPassword("secret");
+		user.setEmail("bench-user@example.com");
+		user.getRoles().add(Role.ROLE_USER);
+		entityManager.persist(user);
+
+		provider = new Provider();
+		provider.setUsername("bench-provider");
+		provider.setPassword("secret");
+		provider.setEmail("bench-provider@example.com");
+		provider.getRoles().add(Role.ROLE_PROVIDER);
+		entityManager.persist(provider);
+		entityManager.flush();
+	}
+
+	@Test
+	void bulkAppointmentInsertRate() {
+		// Warm up connection, statement cache and JIT once per mode
+		insert(500, 1);
+		insert(500, null);
+
+		double before = 0;
+		double after = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			before = Math.max(before, insert(ROWS, 1));
+			after = Math.max(after, insert(ROWS, null));
+		}
+
+		System.out.printf("Bulk appointment insert, %d rows: unbatched %.0f rows/s, batched %.0f rows/s (%.1fx)%n",
+				ROWS, before, after, after / before);
+	}
+
+	/**
+	 * Persist {@code rows} appointments and flush; returns rows per second.
+	 * A null batch size keeps hibernate.jdbc.batch_size from the configuration.
+	 */
+	private double insert(int rows, Integer batchSize) {
+		Session session = entityManager.unwrap(Session.class);
+		session.setJdbcBatchSize(batchSize);
+
+		List<Appointment> appointments = new ArrayList<>(rows);
+		for (int i = 0; i < rows; i++) {
+			Appointment appointment = new Appointment();
+			appointment.setUser(user);
+			appointment.setProvider(provider);
+			appointment.setStartTime(nextStart);
+			appointment.setEndTime(nextStart.plusMinutes(30));
+			nextStart = nextStart.plusHours(1);
+			appointments.add(appointment);
+		}
+
+		long started = System.nanoTime();
+		appointmentRepository.saveAll(appointments);
+		appointmentRepository.flush();
+		long elapsed = System.nanoTime() - started;
+
+		entityManager.clear();
+		user = entityManager.getReference(User.class, user.getId());
+		provider = entityManager.getReference(Provider.class, provider.getId());
+		return rows / (elapsed / 1_000_000_000.0);
+	}
+}
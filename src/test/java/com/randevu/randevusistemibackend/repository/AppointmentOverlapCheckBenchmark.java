@@ -0,0 +1,107 @@
+package com.randevu.randevusistemibackend.repository;
+
+import com.randevu.randevusistemibackend.model.Appointment;
+import com.randevu.randevusistemibackend.model.Provider;
+import com.randevu.randevusistemibackend.model.Role;
+import com.randevu.randevusistemibackend.model.User;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bookings per second for single appointments, the way createAppointment writes them.
+ * "Two-step" runs the overlap query before every insert, which is what bookings do with
+ * app.booking.exclusion-constraint.enabled=false; "constraint" only inserts and leaves
+ * the check to the appointments_no_overlap exclusion constraint.
+ *
+ * Opt-in: mvn test -Dtest=AppointmentOverlapCheckBenchmark -Dbenchmark=true
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@EnabledIf("com.randevu.randevusistemibackend.repository.PostgresAvailability#isAvailable")
+class AppointmentOverlapCheckBenchmark {
+
+	private static final int BOOKINGS = 2_000;
+	private static final int ROUNDS = 3;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	private User user;
+	private Provider provider;
+	private LocalDateTime nextStart = LocalDateTime.of(2031, 1, 1, 0, 0);
+
+	@BeforeEach
+	void setUp() {
+		user = new User();
+		user.setUsername("bench-user");
+		user.setPassword("secret");
+		user.setEmail("bench-user@example.com");
+		user.getRoles().add(Role.ROLE_USER);
+		entityManager.persist(user);
+
+		provider = new Provider();
+		provider.setUsername("bench-provider");
+		provider.setPassword("secret");
+		provider.setEmail("bench-provider@example.com");
+		provider.getRoles().add(Role.ROLE_PROVIDER);
+		entityManager.persist(provider);
+		entityManager.flush();
+	}
+
+	@Test
+	void singleBookingRate() {
+		// Warm up connection, statement cache and JIT once per mode
+		book(200, true);
+		book(200, false);
+
+		double twoStep = 0;
+		double constraint = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			twoStep = Math.max(twoStep, book(BOOKINGS, true));
+			constraint = Math.max(constraint, book(BOOKINGS, false));
+		}
+
+		System.out.printf("Single bookings, %d each: two-step %.0f/s, constraint only %.0f/s (%.1fx)%n",
+				BOOKINGS, twoStep, constraint, constraint / twoStep);
+	}
+
+	/**
+	 * Book {@code count} back-to-back appointments one at a time; returns bookings per second.
+	 */
+	private double book(int count, boolean checkFirst) {
+		long started = System.nanoTime();
+		for (int i = 0; i < count; i++) {
+			LocalDateTime start = nextStart;
+			LocalDateTime end = start.plusMinutes(30);
+			nextStart = end;
+			if (checkFirst && appointmentRepository.hasOverlappingAppointments(provider, start, end)) {
+				throw new IllegalStateException("Benchmark bookings must not overlap");
+			}
+			Appointment appointment = new Appointment();
+			appointment.setUser(user);
+			appointment.setProvider(provider);
+			appointment.setStartTime(start);
+			appointment.setEndTime(end);
+			appointmentRepository.saveAndFlush(appointment);
+		}
+		long elapsed = System.nanoTime() - started;
+
+		entityManager.clear();
+		user = entityManager.getReference(User.class, user.getId());
+		provider = entityManager.getReference(Provider.class, provider.getId());
+		return count / (elapsed / 1_000_000_000.0);
+	}
+}
@@ -0,0 +1,156 @@
+package com.randevu.randevusistemibackend.repository;
+
+import com.randevu.randevusistemibackend.dto.AppointmentRow;
+import com.randevu.randevusistemibackend.model.Appointment;
+import com.randevu.randevusistemibackend.model.Provider;
+import com.randevu.randevusistemibackend.model.Role;
+import com.randevu.randevusistemibackend.model.User;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that a page of appointments is read with a single statement, however many
+ * users, providers and element collections the rows refer to.
+ * Runs against the configured PostgreSQL database and is skipped when it is not reachable.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIf("com.randevu.randevusistemibackend.repository.PostgresAvailability#isAvailable")
+class AppointmentProjectionQueryTests {
+
+	private static final LocalDateTime START = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	private Statistics statistics;
+	private Provider provider;
+	private User firstUser;
+
+	@BeforeEach
+	void setUp() {
+		provider = new Provider();
+		provider.setUsername("plan-provider");
+		provider.setPassword("secret");
+		provider.setEmail("plan-provider@example.com");
+		provider.getRoles().add(Role.ROLE_PROVIDER);
+		provider.getServices().addAll(Set.of("Muayene", "Kontrol"));
+		entityManager.persist(provider);
+
+		for (int i = 0; i < 5; i++) {
+			User user = new User();
+			user.setUsername("plan-user-" + i);
+			user.setPassword("secret");
+			user.setEmail("plan-user-" + i + "@example.com");
+			user.getRoles().add(Role.ROLE_USER);
+			entityManager.persist(user);
+			if (i == 0) {
+				firstUser = user;
+			}
+
+			for (int j = 0; j < 3; j++) {
+				Appointment appointment = new Appointment();
+				appointment.setUser(user);
+				appointment.setProvider(provider);
+				appointment.setStartTime(START.plusDays(i).plusHours(j));
+				appointment.setEndTime(START.plusDays(i).plusHours(j).plusMinutes(30));
+				entityManager.persist(appointment);
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void providerPageIsOneQuery() {
+		List<AppointmentRow> rows = appointmentRepository.findProviderPage(provider.getId(), PageRequest.of(0, 11));
+
+		assertThat(rows).hasSize(11);
+		assertThat(rows.get(0).providerBusinessName()).isEqualTo(provider.getBusinessName());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+		assertThat(statistics.getCollectionLoadCount()).isZero();
+	}
+
+	@Test
+	void nextUserPageIsOneQuery() {
+		AppointmentRow first = appointmentRepository.findUserPage(firstUser.getId(), PageRequest.of(0, 1)).get(0);
+		statistics.clear();
+
+		List<AppointmentRow> rows = appointmentRepository.findUserPageAfter(
+				firstUser.getId(), first.startTime(), first.id(), PageRequest.of(0, 21));
+
+		assertThat(rows).hasSize(2).allMatch(row -> row.userId().equals(firstUser.getId()));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+
+	@Test
+	void providerRangeIsOneQuery() {
+		List<AppointmentRow> rows = appointmentRepository.findProviderRowsBetween(
+				provider.getId(), START, START.plusDays(1).plusHours(23));
+
+		assertThat(rows).hasSize(6);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(statistics.getCollectionLoadCount()).isZero();
+	}
+
+	@Test
+	void pagesBreakStartTimeTiesById() {
+		// Cancelled, so the overlap constraint lets them share a start time
+		for (int i = 0; i < 3; i++) {
+			Appointment appointment = new Appointment();
+			appointment.setUser(firstUser);
+			appointment.setProvider(provider);
+			appointment.setStartTime(START.minusDays(1));
+			appointment.setEndTime(START.minusDays(1).plusMinutes(30));
+			appointment.setStatus(Appointment.AppointmentStatus.CANCELLED);
+			entityManager.persist(appointment);
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		List<AppointmentRow> all = appointmentRepository.findUserPage(firstUser.getId(), PageRequest.of(0, 100));
+		List<AppointmentRow> paged = new ArrayList<>(appointmentRepository.findUserPage(firstUser.getId(),
+				PageRequest.of(0, 2)));
+		while (paged.size() < all.size()) {
+			AppointmentRow last = paged.get(paged.size() - 1);
+			List<AppointmentRow> next = appointmentRepository.findUserPageAfter(
+					firstUser.getId(), last.startTime(), last.id(), PageRequest.of(0, 2));
+			assertThat(next).isNotEmpty();
+			paged.addAll(next);
+		}
+
+		assertThat(all).hasSize(6).isSortedAccordingTo(Comparator.comparing(AppointmentRow::startTime)
+				.thenComparing(AppointmentRow::id).reversed());
+		assertThat(paged).extracting(AppointmentRow::id)
+				.containsExactlyElementsOf(all.stream().map(AppointmentRow::id).toList());
+	}
+}
@@ -0,0 +1,187 @@
+package com.randevu.randevusistemibackend.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs the migrations into a scratch schema and checks that the hot appointment queries
+ * are answered from an index and only visit the monthly partitions they need, and that the
+ * overlap constraints treat appointments as half-open intervals. Sequential scans are disabled
+ * for the session, so the planner only falls back to one when no index fits the query.
+ * Skipped when no PostgreSQL instance is reachable.
+ */
+class AppointmentQueryPlanTests {
+
+	private static final String SCHEMA = "plan_check_" + ProcessHandle.current().pid();
+
+	private static Connection connection;
+
+	@BeforeAll
+	static void migrate() throws SQLException {
+		try {
+			connection = DriverManager.getConnection(PostgresAvailability.URL,
+					PostgresAvailability.USERNAME, PostgresAvailability.PASSWORD);
+		} catch (SQLException e) {
+			assumeTrue(false, "PostgreSQL not reachable: " + e.getMessage());
+		}
+
+		Flyway.configure()
+				.dataSource(PostgresAvailability.URL, PostgresAvailability.USERNAME, PostgresAvailability.PASSWORD)
+				.schemas(SCHEMA)
+				.load()
+				.migrate();
+
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("SET search_path TO " + SCHEMA + ", public");
+			statement.execute("SET enable_seqscan = off");
+		}
+	}
+
+	@AfterAll
+	static void dropSchema() throws SQLException {
+		if (connection != null) {
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+			}
+			connection.close();
+		}
+	}
+
+	@Test
+	void providerRangeQueryUsesIndex() throws SQLException {
+		assertNoSeqScan("SELECT * FROM appointments WHERE provider_id = 1 " +
+				"AND start_time < '2030-01-31' AND end_time > '2030-01-01' " +
+				"AND status NOT IN ('CANCELLED') ORDER BY start_time");
+	}
+
+	@Test
+	void overlapCheckUsesIndex() throws SQLException {
+		assertNoSeqScan("SELECT count(*) FROM appointments WHERE provider_id = 1 " +
+				"AND start_time < '2030-01-01 10:30' AND end_time > '2030-01-01 10:00' " +
+				"AND status NOT IN ('CANCELLED')");
+	}
+
+	@Test
+	void providerHistoryUsesIndex() throws SQLException {
+		assertNoSeqScan("SELECT * FROM appointments WHERE provider_id = 1 ORDER BY start_time DESC");
+	}
+
+	@Test
+	void userHistoryUsesIndex() throws SQLException {
+		assertNoSeqScan("SELECT * FROM appointments WHERE user_id = 1 ORDER BY start_time DESC");
+	}
+
+	@Test
+	void completionBatchUsesIndex() throws SQLException {
+		assertNoSeqScan("SELECT id FROM appointments WHERE status = 'CONFIRMED' " +
+				"AND end_time < '2030-01-01' AND (end_time, id) > ('2029-01-01', 0) " +
+				"ORDER BY end_time, id LIMIT 500");
+	}
+
+	@Test
+	void completionBatchUpdateJoinsOnThePartitionKey() throws SQLException {
+		// The UPDATE side of AppointmentCompletionJob's batch statement
+		assertNoSeqScan("UPDATE appointments a SET status = 'COMPLETED' " +
+				"FROM (VALUES (1::bigint, '2030-01-05 10:00'::timestamp)) AS batch (id, start_time) " +
+				"WHERE a.id = batch.id AND a.start_time = batch.start_time AND a.status = 'CONFIRMED'");
+	}
+
+	@Test
+	void providerRangeQueryPrunesToItsMonth() throws SQLException {
+		execute("SELECT create_appointment_partition('2030-01-01')");
+		execute("SELECT create_appointment_partition('2030-02-01')");
+
+		// findByProviderAndStartTimeBetween
+		List<String> plan = explain("SELECT * FROM appointments WHERE provider_id = 1 " +
+				"AND start_time BETWEEN '2030-01-05' AND '2030-01-20'");
+
+		assertThat(plan).as(String.join("\n", plan))
+				.anyMatch(line -> line.contains("appointments_p203001"))
+				.noneMatch(line -> line.contains("appointments_p203002") || line.contains("appointments_default"));
+	}
+
+	@Test
+	void archivedMonthsStayInHistory() throws SQLException {
+		execute("INSERT INTO users (id, enabled, user_type, email, password, username) " +
+				"VALUES (-1, true, 'PROVIDER', 'archive@example.com', 'x', 'archive-check')");
+		execute("INSERT INTO provider (id) VALUES (-1)");
+		execute("SELECT create_appointment_partition('2020-01-01')");
+		execute("INSERT INTO appointments (user_id, provider_id, start_time, end_time, status, version) " +
+				"VALUES (-1, -1, '2020-01-10 10:00', '2020-01-10 10:30', 'COMPLETED', 0)");
+
+		execute("SELECT archive_appointment_partition('2020-01-01')");
+
+		assertThat(count("SELECT count(*) FROM appointments WHERE provider_id = -1")).isZero();
+		assertThat(count("SELECT count(*) FROM appointment_history WHERE provider_id = -1")).isEqualTo(1);
+		assertNoSeqScan("SELECT * FROM appointment_history WHERE provider_id = -1 " +
+				"ORDER BY start_time DESC, id DESC LIMIT 21");
+	}
+
+	@Test
+	void exclusionConstraintAllowsAdjacentBookings() throws SQLException {
+		execute("INSERT INTO users (id, enabled, user_type, email, password, username) " +
+				"VALUES (-2, true, 'PROVIDER', 'overlap@example.com', 'x', 'overlap-check')");
+		execute("INSERT INTO provider (id) VALUES (-2)");
+		execute("SELECT create_appointment_partition('2030-03-01')");
+		insertConfirmed("2030-03-04 10:00", "2030-03-04 10:30");
+
+		// Ending when the booking starts and starting when it ends are both allowed
+		insertConfirmed("2030-03-04 09:30", "2030-03-04 10:00");
+		insertConfirmed("2030-03-04 10:30", "2030-03-04 11:00");
+
+		assertThatThrownBy(() -> insertConfirmed("2030-03-04 10:15", "2030-03-04 10:45"))
+				.isInstanceOfSatisfying(SQLException.class,
+						e -> assertThat(e.getSQLState()).isEqualTo("23P01"));
+		assertThat(count("SELECT count(*) FROM appointments WHERE provider_id = -2")).isEqualTo(3);
+	}
+
+	private static void insertConfirmed(String start, String end) throws SQLException {
+		execute("INSERT INTO appointments (user_id, provider_id, start_time, end_time, status, version) " +
+				"VALUES (-2, -2, '" + start + "', '" + end + "', 'CONFIRMED', 0)");
+	}
+
+	private static void assertNoSeqScan(String sql) throws SQLException {
+		List<String> plan = explain(sql);
+		assertThat(plan).as(String.join("\n", plan))
+				.noneMatch(line -> line.contains("Seq Scan on appointments"));
+	}
+
+	private static List<String> explain(String sql) throws SQLException {
+		List<String> plan = new ArrayList<>();
+		try (Statement statement = connection.createStatement();
+			 ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+			while (rs.next()) {
+				plan.add(rs.getString(1));
+			}
+		}
+		return plan;
+	}
+
+	private static long count(String sql) throws SQLException {
+		try (Statement statement = connection.createStatement();
+			 ResultSet rs = statement.executeQuery(sql)) {
+			rs.next();
+			return rs.getLong(1);
+		}
+	}
+
+	private static void execute(String sql) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute(sql);
+		}
+	}
+}
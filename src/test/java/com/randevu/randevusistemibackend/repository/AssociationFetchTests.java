@@ -0,0 +1,174 @@
+package com.randevu.randevusistemibackend.repository;
+
+import com.randevu.randevusistemibackend.dto.ProviderDTO;
+import com.randevu.randevusistemibackend.model.Address;
+import com.randevu.randevusistemibackend.model.Appointment;
+import com.randevu.randevusistemibackend.model.Provider;
+import com.randevu.randevusistemibackend.model.Role;
+import com.randevu.randevusistemibackend.model.User;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bounds the statements each use case needs once its entity graph is applied, so a
+ * collection or association turning eager again, or a graph going missing, shows up
+ * as a failing count rather than as N+1 selects in production.
+ * Runs against the configured PostgreSQL database and is skipped when it is not reachable.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIf("com.randevu.randevusistemibackend.repository.PostgresAvailability#isAvailable")
+class AssociationFetchTests {
+
+	private static final LocalDateTime START = LocalDateTime.of(2030, 2, 4, 9, 0);
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ProviderRepository providerRepository;
+
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	private Statistics statistics;
+	private final List<Provider> providers = new ArrayList<>();
+	private final List<Appointment> appointments = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		User user = new User();
+		user.setUsername("fetch-user");
+		user.setPassword("secret");
+		user.setEmail("fetch-user@example.com");
+		user.getRoles().add(Role.ROLE_USER);
+		entityManager.persist(user);
+
+		for (int i = 0; i < 6; i++) {
+			Address address = new Address();
+			address.setStreetAddress("Cadde " + i);
+			address.setCity("Istanbul");
+			address.setState("Istanbul");
+			address.setPostalCode("3400" + i);
+
+			Provider provider = new Provider();
+			provider.setUsername("fetch-provider-" + i);
+			provider.setPassword("secret");
+			provider.setEmail("fetch-provider-" + i + "@example.com");
+			provider.setBusinessName("Klinik " + i);
+			provider.getRoles().add(Role.ROLE_PROVIDER);
+			provider.getServices().add("Muayene");
+			provider.getServices().add("Kontrol");
+			provider.getServiceCapacities().put("Grup Terapisi", 4);
+			provider.setAddress(address);
+			entityManager.persist(provider);
+			providers.add(provider);
+
+			Appointment appointment = new Appointment();
+			appointment.setUser(user);
+			appointment.setProvider(provider);
+			appointment.setStartTime(START.plusHours(i));
+			appointment.setEndTime(START.plusHours(i).plusMinutes(30));
+			entityManager.persist(appointment);
+			appointments.add(appointment);
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void authenticationLoadsUserWithRolesInOneStatement() {
+		User user = userRepository.findWithRolesByUsername("fetch-user").orElseThrow();
+
+		assertThat(user.getRoles()).containsExactly(Role.ROLE_USER);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void profileLoadsServicesCapacitiesAndAddressInOneStatement() {
+		Provider provider = providerRepository.findProfileByUsername("fetch-provider-0").orElseThrow();
+
+		assertThat(provider.getServices()).hasSize(2);
+		assertThat(provider.getServiceCapacities()).containsEntry("Grup Terapisi", 4);
+		assertThat(provider.getAddress().getCity()).isEqualTo("Istanbul");
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void searchPageLoadsServicesInOneBatch() {
+		Specification<Provider> spec = (root, query, cb) -> cb.like(root.get("username"), "fetch-provider-%");
+
+		List<ProviderDTO> page = providerRepository.findSlice(spec, PageRequest.of(0, 20)).stream()
+				.map(ProviderDTO::fromEntity)
+				.toList();
+		page.forEach(dto -> assertThat(dto.getServices()).hasSize(2));
+		page.forEach(dto -> assertThat(dto.getServiceCapacities()).hasSize(1));
+
+		assertThat(page).hasSize(providers.size());
+		// Slice query, then one batch each for services and capacities; no per-provider selects
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+	}
+
+	@Test
+	void searchSliceKnowsAboutNextPageWithoutCounting() {
+		Specification<Provider> spec = (root, query, cb) -> cb.like(root.get("username"), "fetch-provider-%");
+
+		Slice<Provider> first = providerRepository.findSlice(spec, PageRequest.of(0, 4));
+		Slice<Provider> last = providerRepository.findSlice(spec, PageRequest.of(1, 4));
+
+		assertThat(first.getContent()).hasSize(4);
+		assertThat(first.hasNext()).isTrue();
+		assertThat(last.getContent()).hasSize(providers.size() - 4);
+		assertThat(last.hasNext()).isFalse();
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void appointmentListDoesNotLoadParticipants() {
+		List<Appointment> active = appointmentRepository.findActiveByProviderIdsBetween(
+				providers.stream().map(Provider::getId).toList(), START, START.plusDays(1));
+		active.forEach(appointment -> assertThat(appointment.getProvider().getId()).isNotNull());
+
+		assertThat(active).hasSize(appointments.size());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void statusTransitionLoadsParticipantsWithTheAppointment() {
+		Appointment appointment = appointmentRepository
+				.findWithParticipantsById(appointments.get(0).getId()).orElseThrow();
+
+		assertThat(appointment.getUser().getEmail()).isEqualTo("fetch-user@example.com");
+		assertThat(appointment.getProvider().getBusinessName()).isEqualTo("Klinik 0");
+		assertThat(appointment.getProvider().getAddress().getCity()).isEqualTo("Istanbul");
+		// The provider's address is an eager to-one of its own and may take a second select
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+	}
+}
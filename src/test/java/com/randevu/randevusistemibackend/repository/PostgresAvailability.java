@@ -0,0 +1,32 @@
+package com.randevu.randevusistemibackend.repository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * Connection settings of the database-backed tests, taken from the same environment
+ * variables as the application, and a check used to skip them when it is not reachable.
+ */
+final class PostgresAvailability {
+
+	static final String URL = env("SPRING_DATASOURCE_URL", "jdbc:postgresql://localhost:5432/randevusistemi");
+	static final String USERNAME = env("SPRING_DATASOURCE_USERNAME", "postgres");
+	static final String PASSWORD = env("SPRING_DATASOURCE_PASSWORD", "1234");
+
+	private PostgresAvailability() {
+	}
+
+	static boolean isAvailable() {
+		try (Connection connection = DriverManager.getConnection(URL, USERNAME, PASSWORD)) {
+			return connection.isValid(2);
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	private static String env(String name, String fallback) {
+		String value = System.getenv(name);
+		return value != null ? value : fallback;
+	}
+}
@@ -0,0 +1,77 @@
+package com.randevu.randevusistemibackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.randevu.randevusistemibackend.dto.AppointmentRow;
+import com.randevu.randevusistemibackend.model.Appointment;
+import com.randevu.randevusistemibackend.model.Provider;
+import com.randevu.randevusistemibackend.repository.AppointmentRepository;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AppointmentExportServiceTests {
+
+	private static final LocalDateTime START = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+	private final AppointmentRepository repository = mock(AppointmentRepository.class);
+	private final ObjectMapper objectMapper = new ObjectMapper()
+			.registerModule(new JavaTimeModule())
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+	private final AppointmentExportService service = new AppointmentExportService(repository, objectMapper);
+
+	@Test
+	void csvQuotesFieldsThatNeedIt() {
+		assertThat(AppointmentExportService.csv(null)).isEmpty();
+		assertThat(AppointmentExportService.csv("Saç kesimi")).isEqualTo("Saç kesimi");
+		assertThat(AppointmentExportService.csv("a, \"b\"\nc")).isEqualTo("\"a, \"\"b\"\"\nc\"");
+	}
+
+	@Test
+	void csvExportWritesHeaderAndOneLinePerRow() throws Exception {
+		when(repository.streamProviderRows(7L)).thenReturn(Stream.of(row(1L, "Kontrol, ilk"), row(2L, null)));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long written = service.exportProviderAppointments(provider(), AppointmentExportService.Format.CSV, out);
+
+		assertThat(written).isEqualTo(2);
+		assertThat(out.toString(StandardCharsets.UTF_8).split("\r\n")).containsExactly(
+				"id,startTime,endTime,durationMinutes,status,serviceName,userFullName,userEmail,userPhone,notes,createdAt,updatedAt",
+				"1,2030-01-07T09:00,2030-01-07T09:30,30,CONFIRMED,\"Kontrol, ilk\",Ayşe Yılmaz,ayse@example.com,,,,",
+				"2,2030-01-07T09:00,2030-01-07T09:30,30,CONFIRMED,,Ayşe Yılmaz,ayse@example.com,,,,");
+	}
+
+	@Test
+	void ndjsonExportWritesOneObjectPerLine() throws Exception {
+		when(repository.streamProviderRows(7L)).thenReturn(Stream.of(row(1L, "Kontrol"), row(2L, "Kontrol")));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		service.exportProviderAppointments(provider(), AppointmentExportService.Format.NDJSON, out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertThat(lines).hasSize(2);
+		assertThat(objectMapper.readTree(lines[1]).get("id").asLong()).isEqualTo(2);
+		assertThat(objectMapper.readTree(lines[0]).get("startTime").asText()).isEqualTo("2030-01-07T09:00:00");
+	}
+
+	private static Provider provider() {
+		Provider provider = new Provider();
+		provider.setId(7L);
+		return provider;
+	}
+
+	private static AppointmentRow row(Long id, String serviceName) {
+		return new AppointmentRow(id, 3L, "ayse", "Ayşe Yılmaz", "ayse@example.com", null,
+				7L, "kuafor", "Kuaför", "Kuaför Salonu", null, "kuafor@example.com", null,
+				START, START.plusMinutes(30), serviceName, null, Appointment.AppointmentStatus.CONFIRMED,
+				null, null);
+	}
+}
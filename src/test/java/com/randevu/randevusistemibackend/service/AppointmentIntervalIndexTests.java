@@ -0,0 +1,88 @@
+package com.randevu.randevusistemibackend.service;
+
+import com.randevu.randevusistemibackend.model.Appointment;
+import com.randevu.randevusistemibackend.model.Provider;
+import com.randevu.randevusistemibackend.repository.AppointmentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AppointmentIntervalIndexTests {
+
+	private static final LocalDateTime TEN = LocalDate.now().plusDays(1).atTime(10, 0);
+	private static final Provider PROVIDER = new Provider();
+
+	static {
+		PROVIDER.setId(1L);
+	}
+
+	@Test
+	void bookingsNextToAnAppointmentDoNotOverlap() {
+		AppointmentRepository repository = mock(AppointmentRepository.class);
+		AppointmentIntervalIndex index = index(repository);
+
+		assertThat(index.hasOverlappingAppointments(PROVIDER, TEN.minusMinutes(30), TEN)).isFalse();
+		assertThat(index.hasOverlappingAppointments(PROVIDER, TEN.plusMinutes(30), TEN.plusMinutes(60))).isFalse();
+		assertThat(index.hasOverlappingAppointments(PROVIDER, TEN.minusMinutes(15), TEN.plusMinutes(15))).isTrue();
+		assertThat(index.hasOverlappingAppointments(PROVIDER, TEN.plusMinutes(29), TEN.plusMinutes(59))).isTrue();
+		// Known overlaps are rejected from memory; free ranges are confirmed by the database
+		verify(repository, times(2)).hasOverlappingAppointments(any(), any(), any());
+	}
+
+	@Test
+	void freeLookingRangeBookedOnAnotherNodeOverlaps() {
+		AppointmentRepository repository = mock(AppointmentRepository.class);
+		AppointmentIntervalIndex index = index(repository);
+		when(repository.hasOverlappingAppointments(PROVIDER, TEN.plusHours(1), TEN.plusHours(2))).thenReturn(true);
+
+		assertThat(index.hasOverlappingAppointments(PROVIDER, TEN.plusHours(1), TEN.plusHours(2))).isTrue();
+	}
+
+	@Test
+	void onlyIndexedProvidersKeepAModificationCounter() {
+		AppointmentRepository repository = mock(AppointmentRepository.class);
+		AppointmentIntervalIndex index = index(repository);
+		ReflectionTestUtils.setField(index, "maxProviders", 1);
+		Map<?, ?> modifications = (Map<?, ?>) ReflectionTestUtils.getField(index, "modifications");
+
+		for (long id = 2; id < 100; id++) {
+			Provider other = new Provider();
+			other.setId(id);
+			Appointment booked = new Appointment();
+			booked.setId(id);
+			booked.setProvider(other);
+			booked.setStartTime(TEN);
+			booked.setEndTime(TEN.plusMinutes(30));
+			index.onAppointmentSaved(booked);
+			index.hasOverlappingAppointments(other, TEN, TEN.plusMinutes(30));
+		}
+
+		assertThat(modifications).hasSize(1);
+	}
+
+	private static AppointmentIntervalIndex index(AppointmentRepository repository) {
+		Appointment booked = new Appointment();
+		booked.setId(7L);
+		booked.setStartTime(TEN);
+		booked.setEndTime(TEN.plusMinutes(30));
+		when(repository.findActiveByProviderIdEndingAfter(eq(1L), any())).thenReturn(List.of(booked));
+
+		AppointmentIntervalIndex index = new AppointmentIntervalIndex(repository);
+		ReflectionTestUtils.setField(index, "enabled", true);
+		ReflectionTestUtils.setField(index, "ttlSeconds", 300L);
+		ReflectionTestUtils.setField(index, "maxProviders", 10);
+		return index;
+	}
+}
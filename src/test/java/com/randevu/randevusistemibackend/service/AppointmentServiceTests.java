@@ -0,0 +1,284 @@
+package com.randevu.randevusistemibackend.service;
+
+import com.randevu.randevusistemibackend.dto.AppointmentPageResponse;
+import com.randevu.randevusistemibackend.dto.AppointmentRequest;
+import com.randevu.randevusistemibackend.dto.AppointmentResponse;
+import com.randevu.randevusistemibackend.dto.AppointmentRow;
+import com.randevu.randevusistemibackend.dto.BulkAppointmentRequest;
+import com.randevu.randevusistemibackend.dto.BulkAppointmentResponse;
+import com.randevu.randevusistemibackend.exception.BadRequestException;
+import com.randevu.randevusistemibackend.model.Appointment;
+import com.randevu.randevusistemibackend.model.GroupSlot;
+import com.randevu.randevusistemibackend.model.Provider;
+import com.randevu.randevusistemibackend.model.User;
+import com.randevu.randevusistemibackend.repository.AppointmentRepository;
+import com.randevu.randevusistemibackend.repository.GroupSlotRepository;
+import com.randevu.randevusistemibackend.repository.UserRepository;
+import com.randevu.randevusistemibackend.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * AppointmentService on mocked repositories; transactions are no-ops, so after-commit
+ * callbacks run straight away.
+ */
+class AppointmentServiceTests {
+
+	private static final LocalDateTime START = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+	private final AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+	private final GroupSlotRepository groupSlotRepository = mock(GroupSlotRepository.class);
+	private final EmailService emailService = mock(EmailService.class);
+	private final WaitlistService waitlistService = mock(WaitlistService.class);
+	private final ProviderStatsService providerStatsService = mock(ProviderStatsService.class);
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final AppointmentIntervalIndex intervalIndex = mock(AppointmentIntervalIndex.class);
+	private final BookingCoordinator bookingCoordinator = mock(BookingCoordinator.class);
+
+	private AppointmentService service;
+	private Provider provider;
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		service = new AppointmentService(appointmentRepository, userRepository,
+				emailService, intervalIndex, mock(SlotGridCache.class),
+				bookingCoordinator, mock(SlotHoldRegistry.class), waitlistService,
+				groupSlotRepository, providerStatsService,
+				new TransactionTemplate(mock(PlatformTransactionManager.class)), jdbcTemplate,
+				mock(EntityManager.class));
+		ReflectionTestUtils.setField(service, "defaultPageSize", 20);
+		ReflectionTestUtils.setField(service, "maxPageSize", 100);
+		ReflectionTestUtils.setField(service, "transitionMaxAttempts", 3);
+		ReflectionTestUtils.setField(service, "exclusionConstraintEnabled", true);
+		when(bookingCoordinator.withProviderLock(anyLong(), any()))
+				.thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+
+		provider = new Provider();
+		provider.setId(1L);
+		provider.setUsername("provider");
+		provider.setAvailable(true);
+		user = new User();
+		user.setId(2L);
+		user.setUsername("user");
+	}
+
+	@Test
+	void groupSeatIsClaimedInTheDatabase() {
+		GroupSlot slot = new GroupSlot(5L, provider, "Yoga", START, START.plusHours(1), 3, 1);
+		when(groupSlotRepository.findSession(1L, "Yoga", START)).thenReturn(Optional.of(slot));
+		when(groupSlotRepository.claimSeat(5L)).thenReturn(1);
+		when(appointmentRepository.saveAndFlush(any(Appointment.class))).thenAnswer(invocation -> {
+			Appointment appointment = invocation.getArgument(0);
+			appointment.setId(10L);
+			return appointment;
+		});
+		AppointmentResponse response = service.createAppointment(groupRequest(), user);
+
+		assertThat(response.getId()).isEqualTo(10L);
+		verify(groupSlotRepository).claimSeat(5L);
+	}
+
+	@Test
+	void fullGroupSessionIsRejectedByTheDatabase() {
+		GroupSlot slot = new GroupSlot(5L, provider, "Yoga", START, START.plusHours(1), 3, 2);
+		when(groupSlotRepository.findSession(1L, "Yoga", START)).thenReturn(Optional.of(slot));
+		when(groupSlotRepository.claimSeat(5L)).thenReturn(0);
+
+		assertThatThrownBy(() -> service.createAppointment(groupRequest(), user))
+				.isInstanceOfSatisfying(BadRequestException.class,
+						e -> assertThat(e.getErrorCode()).isEqualTo("GROUP_SLOT_FULL"));
+		verify(appointmentRepository, never()).saveAndFlush(any());
+	}
+
+	@Test
+	void bookingsAtAMonthBoundaryAreCheckedAgainstTheDatabase() {
+		when(userRepository.findById(1L)).thenReturn(Optional.of(provider));
+		LocalDateTime lastEvening = LocalDateTime.of(2030, 1, 31, 23, 30);
+		when(appointmentRepository.hasOverlappingAppointments(provider, lastEvening, lastEvening.plusMinutes(60)))
+				.thenReturn(true);
+
+		assertThatThrownBy(() -> service.createAppointment(
+				new AppointmentRequest(1L, lastEvening, 60, null, null), user))
+				.isInstanceOfSatisfying(BadRequestException.class,
+						e -> assertThat(e.getErrorCode()).isEqualTo("APPOINTMENT_OVERLAP"));
+		verify(intervalIndex, never()).isKnownOverlap(anyLong(), any(), any());
+	}
+
+	@Test
+	void cancellingAGroupSeatTwiceReleasesItOnce() {
+		Appointment seat = appointment(1L, Appointment.AppointmentStatus.CONFIRMED);
+		seat.setGroupSlotId(5L);
+		when(appointmentRepository.findWithParticipantsById(1L)).thenReturn(Optional.of(seat));
+		when(appointmentRepository.updateStatusIfUnchanged(anyLong(), any(), anyLong(), any(), any())).thenReturn(1);
+
+		service.cancelAppointment(1L, user);
+
+		assertThatThrownBy(() -> service.cancelAppointment(1L, user))
+				.isInstanceOfSatisfying(BadRequestException.class,
+						e -> assertThat(e.getErrorCode()).isEqualTo("APPOINTMENT_CANCELLED"));
+		verify(groupSlotRepository).releaseSeat(5L);
+		verify(appointmentRepository).updateStatusIfUnchanged(anyLong(), any(), anyLong(), any(), any());
+		verify(providerStatsService).recordTransition(seat, Appointment.AppointmentStatus.CONFIRMED,
+				Appointment.AppointmentStatus.CANCELLED);
+	}
+
+	@Test
+	void fullPageWithoutExtraRowIsTheLast() {
+		when(appointmentRepository.findUserPage(2L, PageRequest.of(0, 4))).thenReturn(rows(10, 3));
+
+		AppointmentPageResponse page = service.getUserAppointments(user, null, 3);
+
+		assertThat(page.getItems()).extracting(AppointmentResponse::getId).containsExactly(10L, 9L, 8L);
+		assertThat(page.isHasMore()).isFalse();
+		assertThat(page.getNextCursor()).isNull();
+	}
+
+	@Test
+	void extraRowIsCutAndItsPredecessorBecomesTheCursor() {
+		when(appointmentRepository.findUserPage(2L, PageRequest.of(0, 4))).thenReturn(rows(10, 4));
+		when(appointmentRepository.findUserPageAfter(eq(2L), any(), anyLong(), eq(PageRequest.of(0, 4))))
+				.thenReturn(rows(7, 2));
+
+		AppointmentPageResponse first = service.getUserAppointments(user, null, 3);
+
+		assertThat(first.getItems()).extracting(AppointmentResponse::getId).containsExactly(10L, 9L, 8L);
+		assertThat(first.isHasMore()).isTrue();
+		assertThat(KeysetCursor.decode(first.getNextCursor())).isEqualTo(new KeysetCursor(START.minusHours(8), 8L));
+
+		AppointmentPageResponse second = service.getUserAppointments(user, first.getNextCursor(), 3);
+
+		verify(appointmentRepository).findUserPageAfter(2L, START.minusHours(8), 8L, PageRequest.of(0, 4));
+		assertThat(second.getItems()).extracting(AppointmentResponse::getId).containsExactly(7L, 6L);
+		assertThat(second.isHasMore()).isFalse();
+	}
+
+	@Test
+	void pageSizeOutsideTheLimitsIsRejected() {
+		for (int size : new int[] {0, -1, 101}) {
+			assertThatThrownBy(() -> service.getUserAppointments(user, null, size))
+					.isInstanceOfSatisfying(BadRequestException.class,
+							e -> assertThat(e.getErrorCode()).isEqualTo("INVALID_PAGE_SIZE"));
+		}
+		verify(appointmentRepository, never()).findUserPage(anyLong(), any());
+	}
+
+	@Test
+	void invalidCursorIsRejectedBeforeQuerying() {
+		assertThatThrownBy(() -> service.getUserAppointments(user, "bm90LWEtY3Vyc29y", null))
+				.isInstanceOfSatisfying(BadRequestException.class,
+						e -> assertThat(e.getErrorCode()).isEqualTo("INVALID_CURSOR"));
+		verify(appointmentRepository, never()).findUserPageAfter(anyLong(), any(), anyLong(), any());
+	}
+
+	@Test
+	void bulkConfirmReportsEveryItemInRequestOrder() {
+		Appointment pending = appointment(1L, Appointment.AppointmentStatus.PENDING);
+		Appointment raced = appointment(2L, Appointment.AppointmentStatus.PENDING);
+		Appointment cancelled = appointment(3L, Appointment.AppointmentStatus.CANCELLED);
+		when(appointmentRepository.findByIdsAndProviderId(List.of(1L, 2L, 3L, 4L), 1L))
+				.thenReturn(List.of(pending, raced, cancelled));
+		// The second UPDATE finds another version and changes nothing
+		batchUpdateCounts(1, 0);
+
+		BulkAppointmentResponse response = service.bulkUpdateStatus(new BulkAppointmentRequest(
+				BulkAppointmentRequest.Action.CONFIRM, List.of(1L, 2L, 3L, 4L, 1L)), provider);
+
+		assertThat(response.getSucceeded()).isEqualTo(1);
+		assertThat(response.getFailed()).isEqualTo(3);
+		assertThat(response.getResults()).extracting(BulkAppointmentResponse.ItemResult::getAppointmentId)
+				.containsExactly(1L, 2L, 3L, 4L);
+		assertThat(response.getResults()).extracting(BulkAppointmentResponse.ItemResult::getErrorCode)
+				.containsExactly(null, "APPOINTMENT_MODIFIED", "APPOINTMENT_CANCELLED", "APPOINTMENT_NOT_FOUND");
+		assertThat(response.getResults().get(0).getAppointment().getStatus())
+				.isEqualTo(Appointment.AppointmentStatus.CONFIRMED);
+		assertThat(pending.getVersion()).isEqualTo(4L);
+		assertThat(raced.getStatus()).isEqualTo(Appointment.AppointmentStatus.PENDING);
+		verify(providerStatsService).recordTransitions(List.of(pending),
+				Map.of(1L, Appointment.AppointmentStatus.PENDING), Appointment.AppointmentStatus.CONFIRMED);
+		verify(emailService).sendAppointmentsConfirmedToUsers(List.of(pending));
+	}
+
+	@Test
+	void bulkCancelFreesOnlyTheSlotsItChanged() {
+		Appointment changed = appointment(1L, Appointment.AppointmentStatus.CONFIRMED);
+		Appointment raced = appointment(2L, Appointment.AppointmentStatus.CONFIRMED);
+		Appointment cancelled = appointment(3L, Appointment.AppointmentStatus.CANCELLED);
+		when(appointmentRepository.findByIdsAndProviderId(List.of(1L, 2L, 3L), 1L))
+				.thenReturn(List.of(changed, raced, cancelled));
+		batchUpdateCounts(1, 0);
+
+		BulkAppointmentResponse response = service.bulkUpdateStatus(new BulkAppointmentRequest(
+				BulkAppointmentRequest.Action.CANCEL, List.of(1L, 2L, 3L)), provider);
+
+		assertThat(response.getResults()).extracting(BulkAppointmentResponse.ItemResult::getErrorCode)
+				.containsExactly(null, "APPOINTMENT_MODIFIED", "APPOINTMENT_CANCELLED");
+		verify(waitlistService, never()).onSlotFreed(1L, cancelled.getStartTime(), cancelled.getEndTime());
+		verify(waitlistService).onSlotFreed(1L, changed.getStartTime(), changed.getEndTime());
+		verify(waitlistService, never()).onSlotFreed(1L, raced.getStartTime(), raced.getEndTime());
+		verify(emailService, never()).sendAppointmentsConfirmedToUsers(any());
+	}
+
+	@SuppressWarnings("unchecked")
+	private void batchUpdateCounts(int... counts) {
+		when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(),
+				any(ParameterizedPreparedStatementSetter.class))).thenReturn(new int[][] {counts});
+	}
+
+	private Appointment appointment(Long id, Appointment.AppointmentStatus status) {
+		Appointment appointment = new Appointment();
+		appointment.setId(id);
+		appointment.setUser(user);
+		appointment.setProvider(provider);
+		appointment.setStartTime(START.plusHours(id));
+		appointment.setEndTime(START.plusHours(id).plusMinutes(30));
+		appointment.setStatus(status);
+		appointment.setVersion(3L);
+		return appointment;
+	}
+
+	/**
+	 * {@code count} rows of the user with ids counting down from {@code firstId}, newest first.
+	 */
+	private static List<AppointmentRow> rows(long firstId, int count) {
+		return LongStream.range(0, count)
+				.map(i -> firstId - i)
+				.mapToObj(id -> new AppointmentRow(id, 2L, "user", null, null, null,
+						1L, "provider", null, null, null, null, null,
+						START.minusHours(id), START.minusHours(id).plusMinutes(30), null, null,
+						Appointment.AppointmentStatus.CONFIRMED, null, null))
+				.toList();
+	}
+
+	private static AppointmentRequest groupRequest() {
+		return new AppointmentRequest(1L, START, null, "Yoga", null);
+	}
+}
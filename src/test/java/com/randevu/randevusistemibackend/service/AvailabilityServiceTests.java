@@ -0,0 +1,68 @@
+package com.randevu.randevusistemibackend.service;
+
+import com.randevu.randevusistemibackend.dto.TimeSlotResponse;
+import com.randevu.randevusistemibackend.model.Appointment;
+import com.randevu.randevusistemibackend.model.Provider;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AvailabilityServiceTests {
+
+	// A Monday
+	private static final LocalDate DAY = LocalDate.of(2030, 1, 7);
+
+	@Test
+	void slotsSkipBookedAndClosedTime() {
+		Provider provider = new Provider();
+		provider.setHoursForDay(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(11, 0), false);
+		provider.setHoursForDay(DayOfWeek.TUESDAY, LocalTime.of(9, 0), LocalTime.of(11, 0), true);
+
+		List<Appointment> booked = List.of(appointment(DAY.atTime(9, 30), DAY.atTime(10, 0)));
+
+		List<TimeSlotResponse> slots = AvailabilityService.computeSlots(
+				provider, DAY, DAY.plusDays(1), 30, booked, DAY.atStartOfDay());
+
+		// 09:00 ends when the booking starts and 10:00 starts when it ends; both are free
+		assertThat(slots).extracting(TimeSlotResponse::getStartTime)
+				.containsExactly(DAY.atTime(9, 0), DAY.atTime(10, 0), DAY.atTime(10, 30));
+	}
+
+	@Test
+	void slotsOverlappingABookingAreNotOffered() {
+		Provider provider = new Provider();
+		provider.setHoursForDay(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(11, 0), false);
+
+		List<Appointment> booked = List.of(appointment(DAY.atTime(9, 45), DAY.atTime(10, 15)));
+
+		List<TimeSlotResponse> slots = AvailabilityService.computeSlots(
+				provider, DAY, DAY, 30, booked, DAY.atStartOfDay());
+
+		assertThat(slots).extracting(TimeSlotResponse::getStartTime)
+				.containsExactly(DAY.atTime(9, 0), DAY.atTime(10, 30));
+	}
+
+	@Test
+	void slotsInThePastAreNotOffered() {
+		Provider provider = new Provider();
+		provider.setHoursForDay(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0), false);
+
+		List<TimeSlotResponse> slots = AvailabilityService.computeSlots(
+				provider, DAY, DAY, 30, List.of(), DAY.atTime(9, 15));
+
+		assertThat(slots).extracting(TimeSlotResponse::getStartTime).containsExactly(DAY.atTime(9, 30));
+	}
+
+	private static Appointment appointment(LocalDateTime start, LocalDateTime end) {
+		Appointment appointment = new Appointment();
+		appointment.setStartTime(start);
+		appointment.setEndTime(end);
+		return appointment;
+	}
+}
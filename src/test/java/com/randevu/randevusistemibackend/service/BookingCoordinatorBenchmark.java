@@ -0,0 +1,86 @@
+package com.randevu.randevusistemibackend.service;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bookings per second through the coordinator as threads are added, with every thread
+ * booking the same provider (one stripe, fully serialized) or each its own provider
+ * (separate stripes, which should scale with the threads). Runs against in-memory H2
+ * with the advisory lock off, so it measures the striped lock and the transaction per
+ * booking, not PostgreSQL.
+ *
+ * Opt-in: mvn test -Dtest=BookingCoordinatorBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BookingCoordinatorBenchmark {
+
+	private static final int BOOKINGS_PER_THREAD = 2_000;
+	private static final int ROUNDS = 3;
+
+	private BookingCoordinator coordinator;
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:booking-bench-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE booking (provider_id BIGINT)");
+		coordinator = new BookingCoordinator(new DataSourceTransactionManager(dataSource), jdbcTemplate,
+				1024, false, 60_000);
+	}
+
+	@Test
+	void bookingRateUnderContention() throws Exception {
+		int maxThreads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+		// Warm up the connection and JIT once per mode
+		book(maxThreads, true);
+		book(maxThreads, false);
+
+		for (int threads = 1; threads <= maxThreads; threads *= 2) {
+			double sameProvider = 0;
+			double ownProvider = 0;
+			for (int round = 0; round < ROUNDS; round++) {
+				sameProvider = Math.max(sameProvider, book(threads, true));
+				ownProvider = Math.max(ownProvider, book(threads, false));
+			}
+			System.out.printf("%2d threads: one provider %.0f bookings/s, one provider per thread %.0f bookings/s%n",
+					threads, sameProvider, ownProvider);
+		}
+	}
+
+	/**
+	 * Book {@link #BOOKINGS_PER_THREAD} times on each thread; returns bookings per second.
+	 */
+	private double book(int threads, boolean sameProvider) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			CompletableFuture<?>[] futures = new CompletableFuture<?>[threads];
+			long started = System.nanoTime();
+			for (int t = 0; t < threads; t++) {
+				long providerId = sameProvider ? 1L : t + 1L;
+				futures[t] = CompletableFuture.runAsync(() -> {
+					for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+						coordinator.withProviderLock(providerId,
+								() -> jdbcTemplate.update("INSERT INTO booking VALUES (?)", providerId));
+					}
+				}, executor);
+			}
+			CompletableFuture.allOf(futures).get(10, TimeUnit.MINUTES);
+			long elapsed = System.nanoTime() - started;
+			return threads * BOOKINGS_PER_THREAD / (elapsed / 1_000_000_000.0);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
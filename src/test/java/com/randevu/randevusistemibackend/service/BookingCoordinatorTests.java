@@ -0,0 +1,110 @@
+package com.randevu.randevusistemibackend.service;
+
+import com.randevu.randevusistemibackend.exception.ConflictException;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Drives the coordinator against an in-memory H2 database with the Postgres advisory
+ * lock switched off, so only the striped lock and the transaction handling are exercised.
+ */
+class BookingCoordinatorTests {
+
+	// Generous, so a loaded build machine never turns lock waits into BOOKING_BUSY
+	private static final long LOCK_TIMEOUT_MILLIS = 30_000;
+
+	private DataSourceTransactionManager transactionManager;
+	private BookingCoordinator coordinator;
+	private TransactionTemplate callerTransaction;
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:booking-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+		transactionManager = new DataSourceTransactionManager(dataSource);
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE booking (provider_id BIGINT)");
+
+		coordinator = new BookingCoordinator(transactionManager, jdbcTemplate, 64, false, LOCK_TIMEOUT_MILLIS);
+		callerTransaction = new TransactionTemplate(transactionManager);
+	}
+
+	@Test
+	void lockIsHeldUntilTheBookingCommitsEvenInsideACallerTransaction() throws Exception {
+		AtomicInteger uncommitted = new AtomicInteger();
+		AtomicInteger maxUncommitted = new AtomicInteger();
+		int threads = 8;
+		int bookingsPerThread = 50;
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			CompletableFuture<?>[] futures = new CompletableFuture<?>[threads];
+			for (int t = 0; t < threads; t++) {
+				futures[t] = CompletableFuture.runAsync(() -> {
+					for (int i = 0; i < bookingsPerThread; i++) {
+						callerTransaction.executeWithoutResult(status -> coordinator.withProviderLock(1L, () -> {
+							maxUncommitted.accumulateAndGet(uncommitted.incrementAndGet(), Math::max);
+							TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+								@Override
+								public void afterCompletion(int completionStatus) {
+									uncommitted.decrementAndGet();
+								}
+							});
+							return jdbcTemplate.update("INSERT INTO booking VALUES (1)");
+						}));
+					}
+				}, executor);
+			}
+			CompletableFuture.allOf(futures).get(120, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(maxUncommitted.get()).isEqualTo(1);
+		assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM booking", Long.class))
+				.isEqualTo((long) threads * bookingsPerThread);
+	}
+
+	@Test
+	void waitingLongerThanTheTimeoutIsRejected() throws Exception {
+		BookingCoordinator coordinator = new BookingCoordinator(transactionManager, jdbcTemplate, 64, false, 200);
+		CountDownLatch holding = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Object> holder = CompletableFuture.supplyAsync(() -> coordinator.withProviderLock(1L, () -> {
+			holding.countDown();
+			try {
+				return release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+		}));
+		try {
+			assertThat(holding.await(5, TimeUnit.SECONDS)).isTrue();
+
+			assertThatThrownBy(() -> coordinator.withProviderLock(1L, () -> null))
+					.isInstanceOfSatisfying(ConflictException.class,
+							e -> assertThat(e.getErrorCode()).isEqualTo("BOOKING_BUSY"));
+			assertThat(coordinator.withProviderLock(2L, () -> "other provider")).isEqualTo("other provider");
+		} finally {
+			release.countDown();
+			holder.get(5, TimeUnit.SECONDS);
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package com.randevu.randevusistemibackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.randevu.randevusistemibackend.exception.BadRequestException;
+import com.randevu.randevusistemibackend.exception.ConflictException;
+import com.randevu.randevusistemibackend.model.IdempotencyRecord;
+import com.randevu.randevusistemibackend.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTests {
+
+	private static final Map<String, Object> REQUEST = Map.of("providerId", 1, "startTime", "2030-01-07T10:00");
+
+	private final IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+	private final AtomicInteger runs = new AtomicInteger();
+
+	private IdempotencyService service;
+	private String requestHash;
+
+	@BeforeEach
+	void setUp() {
+		service = new IdempotencyService(repository, new ObjectMapper(), 86400, 100, 60);
+		when(repository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+			IdempotencyRecord record = invocation.getArgument(0);
+			requestHash = record.getRequestHash();
+			record.setId(7L);
+			return record;
+		});
+	}
+
+	@Test
+	void repeatedRequestReplaysTheFirstResponse() {
+		assertThat(execute(REQUEST)).isEqualTo("booked 1");
+		assertThat(execute(REQUEST)).isEqualTo("booked 1");
+
+		assertThat(runs).hasValue(1);
+		verify(repository).complete(7L, "\"booked 1\"");
+		verify(repository, times(1)).saveAndFlush(any());
+	}
+
+	@Test
+	void responseCompletedOnAnotherNodeIsReplayed() {
+		claimedElsewhere(IdempotencyRecord.IdempotencyStatus.COMPLETED, LocalDateTime.now(), "\"booked elsewhere\"");
+
+		assertThat(execute(REQUEST)).isEqualTo("booked elsewhere");
+		assertThat(runs).hasValue(0);
+	}
+
+	@Test
+	void keyReusedForAnotherRequestIsRejected() {
+		execute(REQUEST);
+
+		assertThatThrownBy(() -> execute(Map.of("providerId", 2)))
+				.isInstanceOfSatisfying(BadRequestException.class,
+						e -> assertThat(e.getErrorCode()).isEqualTo("IDEMPOTENCY_KEY_REUSED"));
+		assertThat(runs).hasValue(1);
+	}
+
+	@Test
+	void requestStillRunningElsewhereIsAConflict() {
+		claimedElsewhere(IdempotencyRecord.IdempotencyStatus.IN_PROGRESS, LocalDateTime.now(), null);
+
+		assertThatThrownBy(() -> execute(REQUEST))
+				.isInstanceOfSatisfying(ConflictException.class,
+						e -> assertThat(e.getErrorCode()).isEqualTo("IDEMPOTENCY_IN_PROGRESS"));
+		assertThat(runs).hasValue(0);
+		verify(repository, never()).deleteById(anyLong());
+	}
+
+	@Test
+	void abandonedClaimIsTakenOver() {
+		claimedElsewhere(IdempotencyRecord.IdempotencyStatus.IN_PROGRESS, LocalDateTime.now().minusMinutes(5), null);
+
+		assertThat(execute(REQUEST)).isEqualTo("booked 1");
+
+		verify(repository).deleteById(3L);
+		verify(repository).complete(7L, "\"booked 1\"");
+	}
+
+	@Test
+	void failedRequestReleasesItsClaim() {
+		assertThatThrownBy(() -> service.execute(2L, "key-1", REQUEST, String.class, () -> {
+			throw new IllegalStateException("boom");
+		})).isInstanceOf(IllegalStateException.class);
+
+		verify(repository).deleteById(7L);
+		verify(repository, never()).complete(anyLong(), anyString());
+	}
+
+	private String execute(Object request) {
+		return service.execute(2L, "key-1", request, String.class, () -> "booked " + runs.incrementAndGet());
+	}
+
+	/**
+	 * The first insert of the key hits the unique constraint; the row found instead has the given
+	 * state and the same request hash. Later inserts succeed.
+	 */
+	private void claimedElsewhere(IdempotencyRecord.IdempotencyStatus status, LocalDateTime createdAt,
+			String responseBody) {
+		AtomicInteger inserts = new AtomicInteger();
+		when(repository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+			IdempotencyRecord record = invocation.getArgument(0);
+			requestHash = record.getRequestHash();
+			if (inserts.incrementAndGet() == 1) {
+				throw new DataIntegrityViolationException("duplicate key");
+			}
+			record.setId(7L);
+			return record;
+		});
+		when(repository.findByUserIdAndIdempotencyKey(2L, "key-1")).thenAnswer(invocation -> Optional.of(
+				new IdempotencyRecord(3L, 2L, "key-1", requestHash, status, responseBody, createdAt)));
+	}
+}
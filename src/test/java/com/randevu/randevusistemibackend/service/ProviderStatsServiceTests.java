@@ -0,0 +1,58 @@
+package com.randevu.randevusistemibackend.service;
+
+import com.randevu.randevusistemibackend.dto.ProviderStatsResponse;
+import com.randevu.randevusistemibackend.model.Appointment.AppointmentStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProviderStatsServiceTests {
+
+	// A Monday
+	private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+
+	private static final List<ProviderStatsService.StatsRow> ROWS = List.of(
+			new ProviderStatsService.StatsRow(MONDAY, "Saç Kesimi", AppointmentStatus.CONFIRMED, 3),
+			new ProviderStatsService.StatsRow(MONDAY.plusDays(2), "Saç Kesimi", AppointmentStatus.CANCELLED, 1),
+			new ProviderStatsService.StatsRow(MONDAY.plusDays(7), "", AppointmentStatus.PENDING, 2),
+			new ProviderStatsService.StatsRow(MONDAY.plusDays(8), "Boya", AppointmentStatus.CONFIRMED, 0));
+
+	@Test
+	void weeksStartOnMondayAndSkipEmptyBuckets() {
+		ProviderStatsResponse stats = ProviderStatsService.summarize(MONDAY, MONDAY.plusDays(13),
+				ProviderStatsResponse.Grouping.WEEK, ROWS);
+
+		assertThat(stats.getBuckets()).extracting(ProviderStatsResponse.StatsBucket::getKey)
+				.containsExactly("2030-01-07", "2030-01-14");
+		assertThat(stats.getBuckets().get(0).getCounts())
+				.isEqualTo(Map.of(AppointmentStatus.CONFIRMED, 3L, AppointmentStatus.CANCELLED, 1L));
+		assertThat(stats.getBuckets().get(0).getTotal()).isEqualTo(4);
+		assertThat(stats.getTotals()).containsEntry(AppointmentStatus.PENDING, 2L).hasSize(3);
+	}
+
+	@Test
+	void appointmentsWithoutServiceHaveNullKey() {
+		ProviderStatsResponse stats = ProviderStatsService.summarize(MONDAY, MONDAY.plusDays(13),
+				ProviderStatsResponse.Grouping.SERVICE, ROWS);
+
+		assertThat(stats.getBuckets()).extracting(ProviderStatsResponse.StatsBucket::getKey)
+				.containsExactly(null, "Saç Kesimi");
+	}
+
+	@Test
+	void rollupWindowKeepsOnlyItsDays() {
+		ProviderStatsService.ProviderRollup rollup = new ProviderStatsService.ProviderRollup(MONDAY, 3);
+		rollup.add(MONDAY, "Boya", AppointmentStatus.PENDING, 1);
+		rollup.add(MONDAY, "Boya", AppointmentStatus.PENDING, 1);
+		rollup.add(MONDAY.plusDays(4), "Boya", AppointmentStatus.PENDING, 1);
+
+		assertThat(rollup.covers(MONDAY.minusDays(3), MONDAY.plusDays(3))).isTrue();
+		assertThat(rollup.covers(MONDAY, MONDAY.plusDays(4))).isFalse();
+		assertThat(rollup.rows(MONDAY, MONDAY)).containsExactly(
+				new ProviderStatsService.StatsRow(MONDAY, "Boya", AppointmentStatus.PENDING, 2));
+	}
+}
@@ -0,0 +1,85 @@
+package com.randevu.randevusistemibackend.service;
+
+import com.randevu.randevusistemibackend.model.Appointment;
+import com.randevu.randevusistemibackend.model.Provider;
+import com.randevu.randevusistemibackend.repository.AppointmentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class SlotGridCacheTests {
+
+	private static final LocalDate DAY = LocalDate.of(2030, 1, 7);
+
+	@Test
+	void bookingAndReleasingUpdatesBits() {
+		Provider provider = new Provider();
+		provider.setHoursForDay(DAY.getDayOfWeek(), LocalTime.of(9, 0), LocalTime.of(17, 0), false);
+
+		SlotGridCache.ProviderGrids grids = new SlotGridCache.ProviderGrids(DAY, 2, 5);
+		grids.applyBusinessHours(provider);
+
+		assertThat(grids.isFree(DAY.atTime(14, 0), DAY.atTime(14, 45))).isTrue();
+		assertThat(grids.isFree(DAY.atTime(8, 30), DAY.atTime(9, 30))).isFalse();
+
+		grids.book(new SlotGridCache.Booking(1L, DAY.atTime(14, 30), DAY.atTime(15, 0)));
+		grids.book(new SlotGridCache.Booking(2L, DAY.atTime(14, 40), DAY.atTime(14, 50)));
+		assertThat(grids.isFree(DAY.atTime(14, 0), DAY.atTime(14, 45))).isFalse();
+		assertThat(grids.isFree(DAY.atTime(15, 0), DAY.atTime(15, 30))).isTrue();
+
+		// Releasing one booking keeps the bits still covered by the other
+		grids.release(1L);
+		assertThat(grids.isFree(DAY.atTime(14, 0), DAY.atTime(14, 30))).isTrue();
+		assertThat(grids.isFree(DAY.atTime(14, 35), DAY.atTime(14, 45))).isFalse();
+
+		grids.release(2L);
+		assertThat(grids.isFree(DAY.atTime(14, 0), DAY.atTime(14, 45))).isTrue();
+	}
+
+	@Test
+	void rangesNextToABookingAreFree() {
+		Provider provider = new Provider();
+		provider.setHoursForDay(DAY.getDayOfWeek(), LocalTime.of(9, 0), LocalTime.of(17, 0), false);
+
+		SlotGridCache.ProviderGrids grids = new SlotGridCache.ProviderGrids(DAY, 1, 5);
+		grids.applyBusinessHours(provider);
+		grids.book(new SlotGridCache.Booking(1L, DAY.atTime(10, 0), DAY.atTime(10, 30)));
+
+		assertThat(grids.isFree(DAY.atTime(9, 30), DAY.atTime(10, 0))).isTrue();
+		assertThat(grids.isFree(DAY.atTime(10, 30), DAY.atTime(11, 0))).isTrue();
+		assertThat(grids.isFree(DAY.atTime(9, 45), DAY.atTime(10, 5))).isFalse();
+		assertThat(grids.isFree(DAY.atTime(10, 25), DAY.atTime(10, 45))).isFalse();
+	}
+
+	@Test
+	void onlyCachedProvidersKeepAModificationCounter() {
+		SlotGridCache cache = new SlotGridCache(mock(AppointmentRepository.class));
+		ReflectionTestUtils.setField(cache, "enabled", true);
+		ReflectionTestUtils.setField(cache, "quantumMinutes", 5);
+		ReflectionTestUtils.setField(cache, "daysAhead", 2);
+		ReflectionTestUtils.setField(cache, "ttlSeconds", 300L);
+		ReflectionTestUtils.setField(cache, "maxProviders", 1);
+		Map<?, ?> modifications = (Map<?, ?>) ReflectionTestUtils.getField(cache, "modifications");
+		LocalDate today = LocalDate.now();
+
+		for (long id = 1; id < 100; id++) {
+			Provider provider = new Provider();
+			provider.setId(id);
+			Appointment booked = new Appointment();
+			booked.setId(id);
+			booked.setProvider(provider);
+			booked.setStartTime(today.atTime(23, 0));
+			booked.setEndTime(today.atTime(23, 30));
+			cache.onAppointmentSaved(booked);
+			cache.findAvailableSlots(provider, today, today, 30, today.atStartOfDay());
+		}
+
+		assertThat(modifications).hasSize(1);
+	}
+}
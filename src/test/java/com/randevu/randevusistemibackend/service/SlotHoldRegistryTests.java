@@ -0,0 +1,40 @@
+package com.randevu.randevusistemibackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlotHoldRegistryTests {
+
+	private static final LocalDateTime TEN = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+	@Test
+	void holdsNextToEachOtherDoNotConflict() {
+		SlotHoldRegistry registry = new SlotHoldRegistry(event -> { }, 300, 64, 1000);
+		assertThat(registry.tryHold(1L, 1L, TEN, TEN.plusMinutes(30))).isPresent();
+
+		assertThat(registry.tryHold(1L, 2L, TEN.minusMinutes(30), TEN)).isPresent();
+		assertThat(registry.tryHold(1L, 3L, TEN.plusMinutes(30), TEN.plusMinutes(60))).isPresent();
+		assertThat(registry.tryHold(1L, 4L, TEN.plusMinutes(15), TEN.plusMinutes(45))).isEmpty();
+		assertThat(registry.isHeldByOthers(1L, TEN.plusMinutes(60), TEN.plusMinutes(90), null)).isFalse();
+	}
+
+	@Test
+	void onlyHoldsThatRunOutArePublished() throws InterruptedException {
+		List<Object> events = new ArrayList<>();
+		SlotHoldRegistry registry = new SlotHoldRegistry(events::add, 0, 64, 10);
+		SlotHoldRegistry.SlotHold expiring = registry.tryHold(1L, 1L, TEN, TEN.plusMinutes(30)).orElseThrow();
+		SlotHoldRegistry.SlotHold released = registry.tryHold(1L, 2L, TEN.plusMinutes(30), TEN.plusMinutes(60))
+				.orElseThrow();
+		registry.release(released);
+
+		Thread.sleep(50);
+		registry.expireHolds();
+
+		assertThat(events).containsExactly(new SlotHoldRegistry.HoldExpired(expiring));
+	}
+}
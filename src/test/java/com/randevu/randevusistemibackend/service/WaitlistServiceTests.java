@@ -0,0 +1,77 @@
+package com.randevu.randevusistemibackend.service;
+
+import com.randevu.randevusistemibackend.repository.UserRepository;
+import com.randevu.randevusistemibackend.repository.WaitlistEntryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WaitlistServiceTests {
+
+	private static final LocalDateTime NINE = LocalDateTime.of(2030, 1, 7, 9, 0);
+	private static final LocalDateTime NOW = NINE.minusDays(1);
+
+	private static WaitlistService.Candidate candidate(long id, int fromHour, int toHour, int durationMinutes,
+			int joinedMinute) {
+		return new WaitlistService.Candidate(id, id, NINE.withHour(fromHour), NINE.withHour(toHour),
+				durationMinutes, NOW.minusHours(1).plusMinutes(joinedMinute));
+	}
+
+	@Test
+	void earliestJoinedFittingEntryIsOfferedAndTheRestStayQueued() {
+		WaitlistService.ProviderWaitlist waitlist = new WaitlistService.ProviderWaitlist();
+		waitlist.add(candidate(1, 9, 12, 60, 0));   // too long for the freed half hour
+		waitlist.add(candidate(2, 14, 16, 30, 1));  // window elsewhere in the day
+		waitlist.add(candidate(3, 9, 11, 30, 2));
+		waitlist.add(candidate(4, 9, 11, 15, 3));
+
+		assertThat(waitlist.pollFitting(NINE, NINE.plusMinutes(30), NOW).id()).isEqualTo(3L);
+		assertThat(waitlist.pollFitting(NINE, NINE.plusMinutes(30), NOW).id()).isEqualTo(4L);
+		assertThat(waitlist.pollFitting(NINE, NINE.plusMinutes(30), NOW)).isNull();
+		assertThat(waitlist.pollFitting(NINE, NINE.plusHours(1), NOW).id()).isEqualTo(1L);
+		assertThat(waitlist.pollFitting(NINE.withHour(14), NINE.withHour(15), NOW).id()).isEqualTo(2L);
+	}
+
+	@Test
+	void passedWindowsAreDropped() {
+		WaitlistService.ProviderWaitlist waitlist = new WaitlistService.ProviderWaitlist();
+		waitlist.add(candidate(1, 9, 10, 30, 0));
+		waitlist.add(candidate(2, 9, 12, 30, 1));
+
+		LocalDateTime later = NINE.withHour(10);
+		assertThat(waitlist.pollFitting(later, later.plusMinutes(30), later).id()).isEqualTo(2L);
+		assertThat(waitlist.pollFitting(NINE, NINE.plusMinutes(30), NOW)).isNull();
+	}
+
+	@Test
+	void changedWaitlistsDropTheirModificationCounter() {
+		BookingCoordinator bookingCoordinator = mock(BookingCoordinator.class);
+		when(bookingCoordinator.withProviderLock(anyLong(), any()))
+				.thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+		WaitlistService service = new WaitlistService(mock(WaitlistEntryRepository.class),
+				mock(UserRepository.class), mock(AppointmentIntervalIndex.class), mock(SlotHoldRegistry.class),
+				bookingCoordinator, mock(EmailService.class));
+		ReflectionTestUtils.setField(service, "enabled", true);
+		ReflectionTestUtils.setField(service, "ttlSeconds", 300L);
+		@SuppressWarnings("unchecked")
+		Map<Long, ?> modifications = (Map<Long, ?>) ReflectionTestUtils.getField(service, "modifications");
+
+		LocalDateTime freed = LocalDateTime.now().plusDays(1);
+		for (long providerId = 1; providerId <= 3; providerId++) {
+			service.onSlotFreed(providerId, freed, freed.plusMinutes(30));
+		}
+		assertThat(modifications).hasSize(3);
+
+		ReflectionTestUtils.invokeMethod(service, "onWaitlistChanged", 2L);
+		assertThat(modifications).containsOnlyKeys(1L, 3L);
+	}
+}
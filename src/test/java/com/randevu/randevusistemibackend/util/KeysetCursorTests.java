@@ -0,0 +1,38 @@
+package com.randevu.randevusistemibackend.util;
+
+import com.randevu.randevusistemibackend.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTests {
+
+	@Test
+	void decodesWhatItEncodes() {
+		KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2030, 1, 7, 9, 0, 0, 500_000_000), 42L);
+
+		String token = cursor.encode();
+
+		assertThat(token).doesNotContain("=", "+", "/");
+		assertThat(KeysetCursor.decode(token)).isEqualTo(cursor);
+	}
+
+	@Test
+	void malformedTokensAreBadRequests() {
+		for (String token : new String[] {"not base64!", encode("2030-01-07T09:00"), encode("yesterday|42"),
+				encode("2030-01-07T09:00|forty-two")}) {
+			assertThatThrownBy(() -> KeysetCursor.decode(token))
+					.isInstanceOfSatisfying(BadRequestException.class,
+							e -> assertThat(e.getErrorCode()).isEqualTo("INVALID_CURSOR"));
+		}
+	}
+
+	private static String encode(String raw) {
+		return Base64.getUrlEncoder().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
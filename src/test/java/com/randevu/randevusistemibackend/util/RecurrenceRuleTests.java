@@ -0,0 +1,22 @@
+package com.randevu.randevusistemibackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecurrenceRuleTests {
+
+	@Test
+	void monthlyOccurrencesDoNotDriftAtMonthEnd() {
+		RecurrenceRule rule = new RecurrenceRule(LocalDateTime.of(2030, 1, 31, 10, 0), ChronoUnit.MONTHS, 1, 3);
+
+		assertThat(rule.occurrences()).containsExactly(
+				LocalDateTime.of(2030, 1, 31, 10, 0),
+				LocalDateTime.of(2030, 2, 28, 10, 0),
+				LocalDateTime.of(2030, 3, 31, 10, 0));
+		assertThat(rule.last()).isEqualTo(LocalDateTime.of(2030, 3, 31, 10, 0));
+	}
+}
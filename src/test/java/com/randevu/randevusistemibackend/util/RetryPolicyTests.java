@@ -0,0 +1,46 @@
+package com.randevu.randevusistemibackend.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RetryPolicyTests {
+
+	private final RetryPolicy policy = new RetryPolicy(3, 1, e -> e instanceof OptimisticLockingFailureException);
+
+	@Test
+	void retriesConflictsUntilSuccess() {
+		AtomicInteger attempts = new AtomicInteger();
+
+		String result = policy.execute(() -> {
+			if (attempts.incrementAndGet() < 3) {
+				throw new OptimisticLockingFailureException("conflict");
+			}
+			return "done";
+		});
+
+		assertThat(result).isEqualTo("done");
+		assertThat(attempts).hasValue(3);
+	}
+
+	@Test
+	void rethrowsAfterLastAttemptAndSkipsOtherFailures() {
+		AtomicInteger attempts = new AtomicInteger();
+		assertThatThrownBy(() -> policy.execute(() -> {
+			attempts.incrementAndGet();
+			throw new OptimisticLockingFailureException("conflict");
+		})).isInstanceOf(OptimisticLockingFailureException.class);
+		assertThat(attempts).hasValue(3);
+
+		attempts.set(0);
+		assertThatThrownBy(() -> policy.execute(() -> {
+			attempts.incrementAndGet();
+			throw new IllegalArgumentException("bad request");
+		})).isInstanceOf(IllegalArgumentException.class);
+		assertThat(attempts).hasValue(1);
+	}
+}
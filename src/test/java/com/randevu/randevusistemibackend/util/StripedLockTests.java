@@ -0,0 +1,70 @@
+package com.randevu.randevusistemibackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedLockTests {
+
+	@Test
+	void serializesWorkPerKeyUnderContention() throws Exception {
+		StripedLock locks = new StripedLock(64);
+		long[] counters = new long[4];
+		int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+		int iterations = 20_000;
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			CompletableFuture<?>[] futures = new CompletableFuture<?>[threads];
+			for (int t = 0; t < threads; t++) {
+				futures[t] = CompletableFuture.runAsync(() -> {
+					for (int i = 0; i < iterations; i++) {
+						int key = i % counters.length;
+						locks.lockFor(key).lock();
+						try {
+							counters[key]++;
+						} finally {
+							locks.unlock(key);
+						}
+					}
+				}, executor);
+			}
+			CompletableFuture.allOf(futures).get(30, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		for (long counter : counters) {
+			assertThat(counter).isEqualTo((long) threads * iterations / counters.length);
+		}
+	}
+
+	@Test
+	void differentStripesDoNotBlockEachOther() throws Exception {
+		StripedLock locks = new StripedLock(64);
+		assertThat(locks.lockFor(1L)).isNotSameAs(locks.lockFor(2L));
+
+		locks.lockFor(1L).lock();
+		try {
+			boolean acquired = CompletableFuture.supplyAsync(() -> {
+				try {
+					boolean ok = locks.tryLock(2L, 0, TimeUnit.MILLISECONDS);
+					if (ok) {
+						locks.unlock(2L);
+					}
+					return ok;
+				} catch (InterruptedException e) {
+					return false;
+				}
+			}).get(5, TimeUnit.SECONDS);
+			assertThat(acquired).isTrue();
+		} finally {
+			locks.unlock(1L);
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package com.randevu.randevusistemibackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTests {
+
+	@Test
+	void expiresItemsOnlyOnceTheirDeadlinePassed() {
+		TimingWheel<String> wheel = new TimingWheel<>(8, 100, 0);
+		List<String> expired = new ArrayList<>();
+
+		wheel.schedule("soon", 250);
+		// Beyond one revolution (800 ms), shares a bucket with "soon"
+		wheel.schedule("later", 1050);
+
+		wheel.advance(200, expired::add);
+		assertThat(expired).isEmpty();
+
+		wheel.advance(300, expired::add);
+		assertThat(expired).containsExactly("soon");
+
+		wheel.advance(1000, expired::add);
+		assertThat(expired).containsExactly("soon");
+
+		wheel.advance(1100, expired::add);
+		assertThat(expired).containsExactly("soon", "later");
+	}
+}